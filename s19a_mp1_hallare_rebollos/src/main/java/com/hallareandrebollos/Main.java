@@ -1,5 +1,6 @@
 package com.hallareandrebollos;
 
+import com.hallareandrebollos.lib.AccountStore;
 import com.hallareandrebollos.lib.TextInterface;
 
 public class Main {
@@ -30,6 +31,7 @@ public class Main {
             }
         }
 
+        AccountStore.getInstance().close();     // Write any pending account changes before exiting.
         System.out.println("Program exited. Goodbye!");
     }
 }
\ No newline at end of file
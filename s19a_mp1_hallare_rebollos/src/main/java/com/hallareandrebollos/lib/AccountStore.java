@@ -0,0 +1,279 @@
+package com.hallareandrebollos.lib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.hallareandrebollos.objects.Account;
+
+public class AccountStore {
+    private static final Path ACCOUNT_FILE_PATH = Paths.get("data", "accounts.txt");
+    private static final int RECORD_LENGTH = 128;           // Bytes per account line, including the newline.
+    private static AccountStore instance;                   // Shared store, loaded on first use.
+
+    private final ArrayList<Account> accounts;              // Accounts in file order, so the index is the record slot. Null for unreadable lines.
+    private final HashMap<String, Integer> slotsByName;     // Record slots keyed by lowercase username.
+    private final HashMap<Integer, Integer> slotsByID;      // Record slots keyed by account ID.
+    private int maxID;                                      // Highest account ID in use.
+    private boolean writable;                               // False if the file was not fully read, so records must not be written.
+    private final ExecutorService writer;                   // Background thread that writes changes to the file.
+    private FileChannel channel;                            // Open accounts file, only used by the writer thread.
+
+    // Constructor: Reads data/accounts.txt once and starts the writer thread.
+    private AccountStore() {
+        this.accounts = new ArrayList<>();
+        this.slotsByName = new HashMap<>();
+        this.slotsByID = new HashMap<>();
+        this.maxID = 0;
+        this.writable = true;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "account-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+
+    // Returns the shared store, loading it on first use.
+    // Pending writes are also flushed when the program exits.
+    public static synchronized AccountStore getInstance() {
+        if (instance == null) {
+            instance = new AccountStore();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::flush));
+        }
+        return instance;
+    }
+
+
+    // Checks if the username and password fit in one fixed-width account record.
+    public static boolean fitsRecord(String username, String password) {
+        return encode(new Account(Integer.MAX_VALUE, username, password, false)) != null;
+    }
+
+
+    private void load() {
+        // Per line format is "accountID, isActive, username, password", padded with spaces
+        // so every line is RECORD_LENGTH bytes long and can be rewritten in place.
+        // Passwords cannot contain spaces, so the padding is trimmed off the end.
+        boolean fixedWidth = true;
+        boolean skippedLines = false;
+        if (Files.exists(ACCOUNT_FILE_PATH)) {
+            try {
+                for (String line : Files.readAllLines(ACCOUNT_FILE_PATH, StandardCharsets.UTF_8)) {
+                    fixedWidth = fixedWidth && line.getBytes(StandardCharsets.UTF_8).length == RECORD_LENGTH - 1;
+                    Account account = parse(line);
+                    if (account != null && !this.slotsByID.containsKey(account.getAccountID())) {
+                        index(account);
+                    } else {
+                        this.accounts.add(null);    // Keeps the slots of the following lines.
+                        skippedLines = skippedLines || !line.isBlank();
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Error reading accounts file: " + e.getMessage());
+                this.writable = false;
+            }
+        }
+
+        // Older files have one unpadded line per account, so lay them out in records once.
+        // A line that could not be read would be lost by that, so such files are left alone.
+        if (this.writable && !fixedWidth && skippedLines) {
+            this.writable = false;
+        }
+        if (!this.writable) {
+            System.out.println("Accounts file was not fully read, so account changes will not be saved.");
+        } else if (!fixedWidth) {
+            this.writer.execute(this::rewriteRecords);
+        }
+    }
+
+
+    // Reads one "accountID, isActive, username, password" line. Returns null if it is not one.
+    private static Account parse(String line) {
+        Account account = null;
+        String[] parts = line.stripTrailing().split(", ");
+        if (parts.length >= 4) { // Only process lines that have enough parts.
+            try {
+                account = new Account(Integer.parseInt(parts[0]), parts[2], parts[3],
+                                      Boolean.parseBoolean(parts[1]));
+            } catch (NumberFormatException e) {
+                System.out.println("Skipping unreadable account line: " + e.getMessage());
+            }
+        }
+        return account;
+    }
+
+
+    // Adds an account to the end of the list and the username index.
+    private void index(Account account) {
+        this.accounts.add(account);
+        this.slotsByName.put(account.getUsername().toLowerCase(), this.accounts.size() - 1);
+        this.slotsByID.put(account.getAccountID(), this.accounts.size() - 1);
+        if (account.getAccountID() > this.maxID) {
+            this.maxID = account.getAccountID();
+        }
+    }
+
+
+    // Turns an account into its padded record. Returns null if it does not fit.
+    private static byte[] encode(Account account) {
+        String line = account.getAccountID() + ", " + account.isActive() + ", "
+                      + account.getUsername() + ", " + account.getPassword();
+        byte[] content = line.getBytes(StandardCharsets.UTF_8);
+        if (content.length > RECORD_LENGTH - 1) {
+            return null;
+        }
+
+        byte[] record = Arrays.copyOf(content, RECORD_LENGTH);
+        Arrays.fill(record, content.length, RECORD_LENGTH - 1, (byte) ' ');
+        record[RECORD_LENGTH - 1] = '\n';
+        return record;
+    }
+
+
+    // Checks if changes to accounts can be saved, which needs the whole file to have been read.
+    public synchronized boolean isWritable() {
+        return this.writable;
+    }
+
+
+    // Finds an account by username, ignoring case. Returns null if there is none.
+    public synchronized Account find(String username) {
+        Integer slot = this.slotsByName.get(username.toLowerCase());
+        return slot != null ? this.accounts.get(slot) : null;
+    }
+
+
+    // Creates an active account with the next free ID and queues its record to be appended to the file.
+    // Returns null if the username is already taken (ignoring case), does not fit in a record,
+    // or the store is not writable.
+    public synchronized Account create(String username, String password) {
+        Account account = null;
+        if (this.writable && find(username) == null) {
+            Account newAccount = new Account(this.maxID + 1, username, password, true);
+            byte[] record = encode(newAccount);
+            if (record != null) {
+                account = newAccount;
+                index(account);
+                writeRecord(this.accounts.size() - 1, record);
+            }
+        }
+        return account;
+    }
+
+
+    // Marks an account inactive and queues only its record to be rewritten.
+    // The record is not written if the store is not writable.
+    public synchronized void deactivate(int accountID) {
+        Integer slot = this.slotsByID.get(accountID);
+        if (slot != null) {
+            Account account = this.accounts.get(slot);
+            Account updated = new Account(accountID, account.getUsername(), account.getPassword(), false);
+            this.accounts.set(slot, updated);
+            byte[] record = encode(updated);
+            if (this.writable && record != null) {
+                writeRecord(slot, record);
+            }
+        }
+    }
+
+
+    // Queues one record to be written at its slot, touching no other part of the file.
+    private void writeRecord(int slot, byte[] record) {
+        this.writer.execute(() -> {
+            try {
+                openChannel().write(ByteBuffer.wrap(record), (long) slot * RECORD_LENGTH);
+            } catch (IOException e) {
+                System.out.println("Error writing accounts file: " + e.getMessage());
+            }
+        });
+    }
+
+
+    // Writes every account as a fixed-width record. Only needed once for older files.
+    private void rewriteRecords() {
+        ArrayList<Account> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(this.accounts);
+        }
+
+        try {
+            FileChannel fileChannel = openChannel();
+            fileChannel.truncate(0);
+            for (int slot = 0; slot < snapshot.size(); slot++) {
+                Account account = snapshot.get(slot);
+                byte[] record = account != null ? encode(account) : null;
+                if (record == null) {
+                    // Blank record, so the slots of the following accounts stay the same.
+                    if (account != null) {
+                        System.out.println("Account too long for a record: " + account.getUsername());
+                    }
+                    record = new byte[RECORD_LENGTH];
+                    Arrays.fill(record, (byte) ' ');
+                    record[RECORD_LENGTH - 1] = '\n';
+                }
+                fileChannel.write(ByteBuffer.wrap(record), (long) slot * RECORD_LENGTH);
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing accounts file: " + e.getMessage());
+        }
+    }
+
+
+    // Opens the accounts file on first use, creating it and the data folder if needed.
+    private FileChannel openChannel() throws IOException {
+        if (this.channel == null) {
+            Files.createDirectories(ACCOUNT_FILE_PATH.getParent());
+            this.channel = FileChannel.open(ACCOUNT_FILE_PATH, StandardOpenOption.CREATE,
+                                            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return this.channel;
+    }
+
+
+    // Waits until every queued write has reached the file.
+    public void flush() {
+        if (this.writer.isShutdown()) {
+            return;     // Already flushed by close().
+        }
+        try {
+            this.writer.submit(() -> { }).get();
+        } catch (Exception e) {
+            System.out.println("Error flushing accounts file: " + e.getMessage());
+        }
+    }
+
+
+    // Flushes pending writes, closes the file and stops the writer thread. Called when the program exits.
+    public void close() {
+        this.writer.execute(() -> {
+            try {
+                if (this.channel != null) {
+                    this.channel.close();
+                }
+            } catch (IOException e) {
+                System.out.println("Error closing accounts file: " + e.getMessage());
+            }
+        });
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.out.println("Timed out writing accounts file.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.hallareandrebollos.lib;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import com.hallareandrebollos.objects.Entry;
+
+public class CalendarFileParser implements Closeable {
+    // Line after the header of files whose titles and descriptions are escaped. Older files do not have it.
+    public static final String ESCAPED_FORMAT_MARKER = "#escaped";
+
+    private final Reader reader;                    // Calendar file being read.
+    private char[] buffer;                          // Characters read but not parsed yet. Grows for very long lines.
+    private int position;                           // Start of the current line in the buffer.
+    private int limit;                              // End of the characters read into the buffer.
+    private boolean endOfFile;                      // If the reader has no more characters.
+    private int lineNumber;                         // Lines read so far, for error messages.
+    private boolean removal;                        // If the last entry read was a removal record.
+    private boolean escaped;                        // If titles and descriptions are escaped, see readFormat().
+    private final StringBuilder field;              // Reused for unescaping titles and descriptions.
+
+    // Error for an entry line that does not follow the save format. Only used inside the parser.
+    private static class MalformedLineException extends Exception {
+        MalformedLineException(String message) {
+            super(message);
+        }
+    }
+
+    // Constructor.
+    public CalendarFileParser(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[8192];
+        this.position = 0;
+        this.limit = 0;
+        this.endOfFile = false;
+        this.lineNumber = 0;
+        this.removal = false;
+        this.escaped = true;
+        this.field = new StringBuilder();
+    }
+
+
+    // Escapes a title or description so it can be written on one entry line.
+    // "\" becomes "\\", "," becomes "\," and line breaks become "\n" and "\r".
+    public static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ',' -> escaped.append("\\,");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+
+    // Reads one line as a string. Used for the owner, month and year lines. Returns null at the end of the file.
+    public String readLine() throws IOException {
+        int end = nextLineEnd();
+        String line = null;
+        if (end != -1) {
+            line = new String(this.buffer, this.position, end - this.position);
+            skipLine(end);
+        }
+        return line;
+    }
+
+
+    // Checks for the format marker after the header lines and reads past it if it is there.
+    // Without it the file is from before escaping, so entries are read the way those files were written:
+    // the title ends at the first ", " and backslashes are kept as they are.
+    // Returns true if the file is in the escaped format.
+    public boolean readFormat() throws IOException {
+        int end = nextLineEnd();
+        int length = ESCAPED_FORMAT_MARKER.length();
+        this.escaped = end - this.position == length
+                       && ESCAPED_FORMAT_MARKER.contentEquals(CharBuffer.wrap(this.buffer, this.position, length));
+        if (this.escaped) {
+            skipLine(end);
+        }
+        return this.escaped;
+    }
+
+
+    // Reads the next entry line, skipping blank and malformed lines. Returns null at the end of the file.
+    // Line format is "Date(uuuu-MM-dd), Title, Start Time(HH:mm[:ss]), End Time(HH:mm[:ss]), Description".
+    // A line starting with "- " is a removal record of the entry after it, see isRemoval().
+    public Entry readEntry() throws IOException {
+        Entry entry = null;
+        int end;
+        while (entry == null && (end = nextLineEnd()) != -1) {
+            if (end > this.position) {
+                this.removal = end - this.position >= 2 && this.buffer[this.position] == '-'
+                               && this.buffer[this.position + 1] == ' ';
+                try {
+                    entry = parseEntry(this.removal ? this.position + 2 : this.position, end);
+                } catch (MalformedLineException | DateTimeException e) {
+                    System.out.println("Skipping malformed entry on line " + (this.lineNumber + 1) + ": " + e.getMessage());
+                }
+            }
+            skipLine(end);
+        }
+        return entry;
+    }
+
+
+    // Checks if the last entry read is to be removed rather than added.
+    public boolean isRemoval() {
+        return this.removal;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+
+    // Finds the end of the current line, reading more of the file if needed.
+    // Returns the index of the line break (or of the end of the file), or -1 if there are no more lines.
+    private int nextLineEnd() throws IOException {
+        int scan = this.position;
+        while (true) {
+            while (scan < this.limit) {
+                char c = this.buffer[scan];
+                if (c == '\n' || c == '\r') {
+                    return scan;
+                }
+                scan++;
+            }
+
+            if (this.endOfFile) {
+                return (this.limit > this.position) ? this.limit : -1;
+            }
+
+            // Move the unfinished line to the front, growing the buffer if the line fills all of it.
+            int length = this.limit - this.position;
+            if (length == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+            } else {
+                System.arraycopy(this.buffer, this.position, this.buffer, 0, length);
+            }
+            scan -= this.position;
+            this.position = 0;
+            this.limit = length;
+
+            int read = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+            if (read == -1) {
+                this.endOfFile = true;
+            } else {
+                this.limit += read;
+            }
+        }
+    }
+
+
+    // Moves past the line ending at the given index and its "\n", "\r" or "\r\n".
+    private void skipLine(int end) throws IOException {
+        this.position = end;
+        if (this.position < this.limit && this.buffer[this.position] == '\r') {
+            this.position++;
+            if (this.position == this.limit && !this.endOfFile) {
+                nextLineEnd();      // Reads more so a "\n" right after the buffer is skipped too.
+            }
+        }
+        if (this.position < this.limit && this.buffer[this.position] == '\n') {
+            this.position++;
+        }
+        this.lineNumber++;
+    }
+
+
+    private Entry parseEntry(int start, int end) throws MalformedLineException {
+        // Date: digits separated by "-".
+        int[] cursor = { start };
+        int year = readNumber(cursor, end);
+        expect(cursor, end, '-');
+        int month = readNumber(cursor, end);
+        expect(cursor, end, '-');
+        int day = readNumber(cursor, end);
+        expectSeparator(cursor, end);
+
+        // Title: ends at the first comma that is not escaped, or at the first ", " in older files.
+        String title = this.escaped ? readEscaped(cursor, end, true) : readLegacyTitle(cursor, end);
+        expectSeparator(cursor, end);
+
+        LocalTime timeStart = readTime(cursor, end);
+        expectSeparator(cursor, end);
+        LocalTime timeEnd = readTime(cursor, end);
+
+        // Description: everything after the end time, so older files with unescaped commas still load.
+        String description = "";
+        if (cursor[0] < end) {
+            expectSeparator(cursor, end);
+            description = this.escaped ? readEscaped(cursor, end, false)
+                                       : new String(this.buffer, cursor[0], end - cursor[0]);
+        }
+
+        return new Entry(title.trim(), description.trim(), LocalDate.of(year, month, day), timeStart, timeEnd);
+    }
+
+
+    // Reads "H:mm", "HH:mm:ss" or "HH:mm:ss.fraction", the forms LocalTime.toString() writes.
+    private LocalTime readTime(int[] cursor, int end) throws MalformedLineException {
+        int hour = readNumber(cursor, end);
+        expect(cursor, end, ':');
+        int minute = readNumber(cursor, end);
+        int second = 0;
+        int nano = 0;
+        if (cursor[0] < end && this.buffer[cursor[0]] == ':') {
+            cursor[0]++;
+            second = readNumber(cursor, end);
+            if (cursor[0] < end && this.buffer[cursor[0]] == '.') {
+                cursor[0]++;
+                int digits = cursor[0];
+                nano = readNumber(cursor, end);     // At most 9 digits.
+                digits = cursor[0] - digits;
+                for (int i = digits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalTime.of(hour, minute, second, nano);
+    }
+
+
+    // Reads a run of digits as a number, skipping spaces in front of it.
+    private int readNumber(int[] cursor, int end) throws MalformedLineException {
+        while (cursor[0] < end && this.buffer[cursor[0]] == ' ') {
+            cursor[0]++;
+        }
+
+        int value = 0;
+        int first = cursor[0];
+        while (cursor[0] < end && this.buffer[cursor[0]] >= '0' && this.buffer[cursor[0]] <= '9') {
+            if (cursor[0] - first >= 9) {
+                throw new MalformedLineException("number is too long");
+            }
+            value = value * 10 + (this.buffer[cursor[0]] - '0');
+            cursor[0]++;
+        }
+
+        if (cursor[0] == first) {
+            throw new MalformedLineException("expected a number at column " + column(first));
+        }
+        return value;
+    }
+
+
+    // Reads an escaped title or description. A title stops at the first comma that is not escaped.
+    private String readEscaped(int[] cursor, int end, boolean stopAtComma) {
+        this.field.setLength(0);
+        while (cursor[0] < end) {
+            char c = this.buffer[cursor[0]];
+            if (c == ',' && stopAtComma) {
+                break;
+            }
+            if (c == '\\' && cursor[0] + 1 < end) {
+                char next = this.buffer[cursor[0] + 1];
+                switch (next) {
+                    case '\\', ',' -> c = next;
+                    case 'n' -> c = '\n';
+                    case 'r' -> c = '\r';
+                    default -> next = 0;        // Not an escape, so the backslash is kept as it is.
+                }
+                if (next != 0) {
+                    cursor[0]++;
+                }
+            }
+            this.field.append(c);
+            cursor[0]++;
+        }
+        return this.field.toString();
+    }
+
+
+    // Reads a title of an older file, which ends at the first ", " like it did when those files were split.
+    private String readLegacyTitle(int[] cursor, int end) {
+        int start = cursor[0];
+        while (cursor[0] < end && !(this.buffer[cursor[0]] == ',' && cursor[0] + 1 < end && this.buffer[cursor[0] + 1] == ' ')) {
+            cursor[0]++;
+        }
+        return new String(this.buffer, start, cursor[0] - start);
+    }
+
+
+    private void expect(int[] cursor, int end, char expected) throws MalformedLineException {
+        if (cursor[0] >= end || this.buffer[cursor[0]] != expected) {
+            throw new MalformedLineException("expected '" + expected + "' at column " + column(cursor[0]));
+        }
+        cursor[0]++;
+    }
+
+
+    // Fields are separated by a comma and any spaces after it.
+    private void expectSeparator(int[] cursor, int end) throws MalformedLineException {
+        expect(cursor, end, ',');
+        while (cursor[0] < end && this.buffer[cursor[0]] == ' ') {
+            cursor[0]++;
+        }
+    }
+
+
+    // Column numbers in error messages count from 1 at the start of the current line.
+    private int column(int index) {
+        return index - this.position + 1;
+    }
+}
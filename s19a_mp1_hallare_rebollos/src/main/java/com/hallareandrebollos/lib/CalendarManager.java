@@ -1,6 +1,5 @@
 package com.hallareandrebollos.lib;
 
-import java.io.File;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Scanner;
@@ -25,54 +24,38 @@ public class CalendarManager {
     }
 
 
-    // Load calendar IDs from user and public directories
+    // Load calendar IDs of the user and public directories from the calendar manifest
     public void loadCalendarList(String username) {
         calendarIDs.clear();
         publicCalendarIDs.clear();
 
-        File userDir = new File("data/calendars/" + username + "/");
-        if (userDir.exists() && userDir.isDirectory()) {
-            File[] userFiles = userDir.listFiles((d, name) -> name.endsWith(".txt"));
-            if (userFiles != null) {
-                for (File file : userFiles) {
-                    String id = file.getName().replace(".txt", "");
-                    calendarIDs.add(id);
-                }
-            }
-        }
-
-        File publicDir = new File("data/calendars/public/");
-        if (publicDir.exists() && publicDir.isDirectory()) {
-            File[] publicFiles = publicDir.listFiles((d, name) -> name.endsWith(".txt"));
-            if (publicFiles != null) {
-                for (File file : publicFiles) {
-                    String id = file.getName().replace(".txt", "");
-                    publicCalendarIDs.add(id);
-                }
-            }
-        }
+        CalendarManifest manifest = CalendarManifest.getInstance();
+        calendarIDs.addAll(manifest.getCalendarIDs(username));
+        publicCalendarIDs.addAll(manifest.getCalendarIDs("public"));
     }
 
 
     // Load today's calendar if it matches a user's calendar
+    // Month and year come from the calendar manifest, so only the matching calendar file is read.
     public void loadTodayCalendar(String username) {
         LocalDate today = LocalDate.now();
+        CalendarManifest manifest = CalendarManifest.getInstance();
         boolean found = false;
 
         for (String calendarID : calendarIDs) {
-            MonthCalendar temp = new MonthCalendar(new ArrayList<>());
-
-            if (temp.loadCalendar(username, calendarID)) {
-                if (temp.getMonthNumber() == today.getMonthValue() &&
-                    temp.getYearNumber() == today.getYear()) {
-
-                    if (!found) {
-                        currentCalendar = temp;
-                        currentCalendar.setSelectedDay(today.getDayOfMonth());
-                        currentCalendar.displayCalendar();
-                        currentCalendar.displayEntries();
-                        found = true;
-                    }
+            CalendarManifest.Row row = manifest.get(username, calendarID);
+
+            if (!found && row != null &&
+                row.getMonthNumber() == today.getMonthValue() &&
+                row.getYearNumber() == today.getYear()) {
+
+                MonthCalendar temp = new MonthCalendar(new ArrayList<>());
+                if (temp.loadCalendar(username, calendarID)) {
+                    currentCalendar = temp;
+                    currentCalendar.setSelectedDay(today.getDayOfMonth());
+                    currentCalendar.displayCalendar();
+                    currentCalendar.displayEntries();
+                    found = true;
                 }
             }
         }
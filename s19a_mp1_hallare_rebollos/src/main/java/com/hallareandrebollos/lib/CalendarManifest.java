@@ -0,0 +1,327 @@
+package com.hallareandrebollos.lib;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+public class CalendarManifest {
+    private static final String CALENDARS_PATH = "data/calendars/";
+    private static final String MANIFEST_FILE_PATH = CALENDARS_PATH + "manifest.txt";
+    private static CalendarManifest instance;               // Shared manifest, loaded on first use.
+
+    private final LinkedHashMap<String, Row> rows;          // Rows keyed by "folder/calendarID".
+    private boolean unsaved;                                // If rows changed since the manifest was last written.
+    private long savedAt;                                   // Modification time of the manifest when last read or written.
+
+    // One calendar file: where it is, whose it is, which month it covers and how many entries it has.
+    public static class Row {
+        private final String folder;        // "public" or the username whose folder has the file.
+        private final String calendarID;    // Name of the calendar file without ".txt".
+        private final String owner;         // First line of the file.
+        private final int monthNumber;      // Second line of the file.
+        private final int yearNumber;       // Third line of the file.
+        private final int entryCount;       // Number of entry lines.
+        private final long lastModified;    // Modification time of the file when this row was written.
+
+        public Row(String folder, String calendarID, String owner, int monthNumber, int yearNumber,
+                   int entryCount, long lastModified) {
+            this.folder = folder;
+            this.calendarID = calendarID;
+            this.owner = owner;
+            this.monthNumber = monthNumber;
+            this.yearNumber = yearNumber;
+            this.entryCount = entryCount;
+            this.lastModified = lastModified;
+        }
+
+        // Getters.
+        public String getFolder() {
+            return this.folder;
+        }
+
+        public String getCalendarID() {
+            return this.calendarID;
+        }
+
+        public String getOwner() {
+            return this.owner;
+        }
+
+        public int getMonthNumber() {
+            return this.monthNumber;
+        }
+
+        public int getYearNumber() {
+            return this.yearNumber;
+        }
+
+        public int getEntryCount() {
+            return this.entryCount;
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+    }
+
+
+    // Constructor: Reads data/calendars/manifest.txt, or builds it from the calendar files the first time.
+    private CalendarManifest() {
+        this.rows = new LinkedHashMap<>();
+        if (new File(MANIFEST_FILE_PATH).exists()) {
+            load();
+        } else {
+            rebuild();
+        }
+    }
+
+
+    // Returns the shared manifest, loading it on first use.
+    // Rows changed in memory only are also written when the program exits.
+    public static synchronized CalendarManifest getInstance() {
+        if (instance == null) {
+            instance = new CalendarManifest();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::flush));
+        }
+        return instance;
+    }
+
+
+    private void load() {
+        // Per line format is "folder, calendarID, owner, month, year, entryCount, lastModified" separated by tabs,
+        // since folders, calendar names and owners can all contain ", ".
+        this.savedAt = new File(MANIFEST_FILE_PATH).lastModified();
+        try (BufferedReader reader = new BufferedReader(new FileReader(MANIFEST_FILE_PATH))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length >= 7) { // Only process lines that have enough parts.
+                    Row row = new Row(parts[0], parts[1], parts[2], Integer.parseInt(parts[3]),
+                                      Integer.parseInt(parts[4]), Integer.parseInt(parts[5]), Long.parseLong(parts[6]));
+                    this.rows.put(key(row.getFolder(), row.getCalendarID()), row);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading calendar manifest: " + e.getMessage());
+        }
+    }
+
+
+    // Scans every calendar folder once and writes the manifest.
+    private void rebuild() {
+        File[] folders = new File(CALENDARS_PATH).listFiles(File::isDirectory);
+        if (folders != null) {
+            for (File folder : folders) {
+                File[] files = folder.listFiles((d, name) -> name.endsWith(".txt"));
+                if (files != null) {
+                    for (File file : files) {
+                        Row row = readRow(folder.getName(), file.getName().replace(".txt", ""));
+                        if (row != null) {
+                            this.rows.put(key(row.getFolder(), row.getCalendarID()), row);
+                        }
+                    }
+                }
+            }
+        }
+        save();
+    }
+
+
+    // Reads the header and counts the entries of one calendar file. Returns null if it cannot be read.
+    // Each removal record ("- " line) cancels one entry line written before it.
+    private static Row readRow(String folder, String calendarID) {
+        File file = calendarFile(folder, calendarID);
+        Row row = null;
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String owner = reader.readLine();
+            int monthNumber = Integer.parseInt(reader.readLine().trim());
+            int yearNumber = Integer.parseInt(reader.readLine().trim());
+            int entryCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("- ")) {
+                    entryCount--;
+                } else if (!line.isEmpty() && !line.equals(CalendarFileParser.ESCAPED_FORMAT_MARKER)) {
+                    entryCount++;
+                }
+            }
+            row = new Row(folder, calendarID, owner, monthNumber, yearNumber, entryCount, file.lastModified());
+        } catch (Exception e) {
+            System.out.println("Error reading calendar " + calendarID + ": " + e.getMessage());
+        }
+
+        return row;
+    }
+
+
+    private void save() {
+        // Writes to a temporary file first so a crash never leaves half a manifest behind.
+        File file = new File(MANIFEST_FILE_PATH);
+        File temp = new File(MANIFEST_FILE_PATH + ".tmp");
+        file.getParentFile().mkdirs();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
+            for (Row row : this.rows.values()) {
+                writer.write(row.getFolder() + "\t" + row.getCalendarID() + "\t" + row.getOwner() + "\t"
+                             + row.getMonthNumber() + "\t" + row.getYearNumber() + "\t"
+                             + row.getEntryCount() + "\t" + row.getLastModified());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing calendar manifest: " + e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.unsaved = false;
+            this.savedAt = file.lastModified();
+        } catch (IOException e) {
+            System.out.println("Error writing calendar manifest: " + e.getMessage());
+        }
+    }
+
+
+    private static String key(String folder, String calendarID) {
+        return folder + "/" + calendarID;
+    }
+
+
+    private static File calendarFile(String folder, String calendarID) {
+        return new File(CALENDARS_PATH + folder + "/" + calendarID + ".txt");
+    }
+
+
+    // Records a calendar file that was just written.
+    public synchronized void update(String folder, String calendarID, String owner, int monthNumber, int yearNumber,
+                                    int entryCount) {
+        long lastModified = calendarFile(folder, calendarID).lastModified();
+        this.rows.put(key(folder, calendarID),
+                      new Row(folder, calendarID, owner, monthNumber, yearNumber, entryCount, lastModified));
+        save();
+    }
+
+
+    // Records a change appended to a calendar file, in memory only, so appending a change does not
+    // rewrite the manifest. It is written at the next save or at exit; if that never happens,
+    // get() reads the file again since its modification time no longer matches.
+    public synchronized void updateInMemory(String folder, String calendarID, String owner, int monthNumber,
+                                            int yearNumber, int entryCount) {
+        long lastModified = calendarFile(folder, calendarID).lastModified();
+        this.rows.put(key(folder, calendarID),
+                      new Row(folder, calendarID, owner, monthNumber, yearNumber, entryCount, lastModified));
+        this.unsaved = true;
+    }
+
+
+    // Writes the manifest if rows were changed in memory only.
+    public synchronized void flush() {
+        if (this.unsaved) {
+            save();
+        }
+    }
+
+
+    // Records a calendar file that was copied from one folder to another.
+    public synchronized void copy(String fromFolder, String toFolder, String calendarID) {
+        Row row = get(fromFolder, calendarID);
+        if (row != null) {
+            update(toFolder, calendarID, row.getOwner(), row.getMonthNumber(), row.getYearNumber(), row.getEntryCount());
+        } else {
+            refresh(toFolder, calendarID);
+        }
+    }
+
+
+    // Forgets a calendar file that was deleted.
+    public synchronized void remove(String folder, String calendarID) {
+        if (this.rows.remove(key(folder, calendarID)) != null) {
+            save();
+        }
+    }
+
+
+    // Forgets every calendar file of a folder that was deleted.
+    public synchronized void removeFolder(String folder) {
+        if (this.rows.values().removeIf(row -> row.getFolder().equals(folder))) {
+            save();
+        }
+    }
+
+
+    // Returns the row of a calendar file, or null if it is not in the manifest.
+    // The file is read again if it changed since the row was written, e.g. if it was edited by hand.
+    public synchronized Row get(String folder, String calendarID) {
+        Row row = this.rows.get(key(folder, calendarID));
+        if (row != null && row.getLastModified() != calendarFile(folder, calendarID).lastModified()) {
+            row = refresh(folder, calendarID);
+        }
+        return row;
+    }
+
+
+    // Reads a calendar file into its row again. Forgets the row if the file is gone.
+    private Row refresh(String folder, String calendarID) {
+        Row row = readRow(folder, calendarID);
+        if (row != null) {
+            this.rows.put(key(folder, calendarID), row);
+        } else {
+            this.rows.remove(key(folder, calendarID));
+        }
+        save();
+        return row;
+    }
+
+
+    // Returns the calendar IDs in a folder, in the order they were added.
+    public synchronized ArrayList<String> getCalendarIDs(String folder) {
+        syncFolder(folder);
+        ArrayList<String> calendarIDs = new ArrayList<>();
+        for (Row row : this.rows.values()) {
+            if (row.getFolder().equals(folder)) {
+                calendarIDs.add(row.getCalendarID());
+            }
+        }
+        return calendarIDs;
+    }
+
+
+    // Scans a folder again if files were added to or removed from it since the manifest was written,
+    // e.g. calendars saved before there was a manifest or copied in by hand.
+    // Rows of files that are gone are dropped and files without a row are added after the others.
+    private void syncFolder(String folder) {
+        File directory = new File(CALENDARS_PATH + folder);
+        long folderModified = directory.lastModified();
+        if (folderModified <= this.savedAt) {
+            return;     // Also the case for a folder that does not exist, whose time is 0.
+        }
+
+        this.rows.values().removeIf(row -> row.getFolder().equals(folder)
+                                           && !calendarFile(folder, row.getCalendarID()).exists());
+        File[] files = directory.listFiles((d, name) -> name.endsWith(".txt"));
+        if (files != null) {
+            for (File file : files) {
+                String calendarID = file.getName().substring(0, file.getName().length() - ".txt".length());
+                if (!this.rows.containsKey(key(folder, calendarID))) {
+                    Row row = readRow(folder, calendarID);
+                    if (row != null) {
+                        this.rows.put(key(folder, calendarID), row);
+                    }
+                }
+            }
+        }
+        save();
+        this.savedAt = Math.max(this.savedAt, folderModified);    // Not scanned again if the save failed.
+    }
+}
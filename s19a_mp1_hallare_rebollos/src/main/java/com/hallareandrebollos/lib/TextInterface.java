@@ -187,6 +187,7 @@ public class TextInterface {
 
                         try {
                             java.nio.file.Files.copy(src.toPath(), dst.toPath());
+                            CalendarManifest.getInstance().copy("public", loggedInAccount.getUsername(), selectedName);
                             System.out.println("Calendar added successfully!");
                         } catch (IOException e) {
                             System.out.println("Failed to add calendar: " + e.getMessage());
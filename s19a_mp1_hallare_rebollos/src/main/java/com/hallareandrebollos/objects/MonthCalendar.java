@@ -1,17 +1,21 @@
 package com.hallareandrebollos.objects;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Comparator;
 
+import com.hallareandrebollos.lib.CalendarFileParser;
+import com.hallareandrebollos.lib.CalendarManifest;
+
 public class MonthCalendar {
     private ArrayList<Entry> entries;   // List of entries for the month.
     private int monthNumber;            // Month number (1-12).
@@ -24,6 +28,10 @@ public class MonthCalendar {
     private String ownerUsername;       // Username of the owner of the calendar.
     private String calendarName;        // Name of the calendar.
 
+    private String folderName;          // Folder of the calendar file once saved or loaded, "public" or a username. Null before that.
+    private int removalRecords;         // Removal records appended to the file since it was last fully written.
+    private boolean escapedFormat;      // If the file has escaped titles and descriptions. Older files are written again before appending.
+
     // Default Constructor: Initializes the month calendar with current month and year. For null safety.
     public MonthCalendar(ArrayList<Entry> entries) {
         this.entries = (entries != null) ? entries : new ArrayList<>();
@@ -37,6 +45,8 @@ public class MonthCalendar {
         this.selectedDay = -1;
         this.ownerUsername = "";
         this.calendarName = "";
+        this.folderName = null;
+        this.removalRecords = 0;
     }
 
     // Constructor: Initializes the month calendar with specified month and year. Assumes that selected month and year are not today.
@@ -50,6 +60,8 @@ public class MonthCalendar {
         this.selectedDay = -1;
         this.ownerUsername = "";
         this.calendarName = "";
+        this.folderName = null;
+        this.removalRecords = 0;
     }
 
 
@@ -161,6 +173,7 @@ public class MonthCalendar {
         if (entry != null && entry.getDate().getYear() == this.yearNumber && 
             entry.getDate().getMonthValue() == this.monthNumber) {
             this.entries.add(entry);
+            appendRecord(null, entry);
         } 
         else {
             System.out.println("Entry date does not match the calendar month/year.");
@@ -179,7 +192,7 @@ public class MonthCalendar {
 
         // Will only delete if the condition matches.
         if (indexToDelete != -1) {
-            this.entries.remove(indexToDelete);
+            appendRecord(this.entries.remove(indexToDelete), null);
         }
     }
 
@@ -189,6 +202,7 @@ public class MonthCalendar {
         int index = this.entries.indexOf(oldEntry);
         if (index != -1) {
             this.entries.set(index, newEntry);
+            appendRecord(oldEntry, newEntry);
         } else {
             System.out.println("Entry could not be edited.");
         }
@@ -213,16 +227,26 @@ public class MonthCalendar {
         // First line is the ownername.
         // Second line is the month number.
         // Third line is the year number.
-        // Fourth line and beyond are the entries in the format:
+        // Fourth line is "#escaped", which marks the escaping below. Files without it are read like older saves.
+        // Fifth line and beyond are the entries in the format:
         // "Date(uuuu-MM-dd), Title, Start Time(HH:mm:ss), End Time(HH:mm:ss), Description(Anything beyond this point)".
-        String folderPath;
-
+        // Commas, backslashes and line breaks in the title and description are escaped with a backslash.
+        // Later changes are appended to the file as records until it is compacted by saving it again.
         // Decide path based on whether it's public or private.
         if (ownerUsername.isEmpty()) {
-            folderPath = "data/calendars/public/";
+            this.folderName = "public";
         } else {
-            folderPath = "data/calendars/" + this.ownerUsername + "/";
+            this.folderName = this.ownerUsername;
         }
+        return writeCalendarFile();
+    }
+
+
+    private boolean writeCalendarFile() {
+        // Writes the whole calendar to a temporary file and renames it over the old one,
+        // so a crash while saving leaves either the old or the new file, never half of one.
+        // The calendar manifest is updated after the file is written.
+        String folderPath = "data/calendars/" + this.folderName + "/";
 
         // Ensure directory exists
         File folder = new File(folderPath);
@@ -232,39 +256,130 @@ public class MonthCalendar {
 
         // Create file
         String filePath = folderPath + this.calendarName + ".txt";
+        File temp = new File(filePath + ".tmp");
+        boolean saved = false;
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
             writer.write(this.ownerUsername);  // First line: owner username
             writer.newLine();
             writer.write(String.valueOf(this.monthNumber));
             writer.newLine();
             writer.write(String.valueOf(this.yearNumber));
             writer.newLine();
+            writer.write(CalendarFileParser.ESCAPED_FORMAT_MARKER);
+            writer.newLine();
 
             for (Entry entry : this.entries) {
-                writer.write(entry.getDateString() + ", " + entry.getTitle() + ", " +
-                         entry.getTimeStartString() + ", " + entry.getTimeEndString() + ", " +
-                         entry.getDescription());
+                writer.write(entryLine(entry));
                 writer.newLine();
             }
-
-            return true;
         } catch (IOException e) {
             System.out.println("Error saving calendar: " + e.getMessage());
             return false;
         }
+
+        try {
+            Files.move(temp.toPath(), new File(filePath).toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            saved = true;
+        } catch (IOException e) {
+            System.out.println("Error saving calendar: " + e.getMessage());
+        }
+
+        if (saved) {
+            this.removalRecords = 0;
+            this.escapedFormat = true;
+            CalendarManifest.getInstance().update(this.folderName, this.calendarName, this.ownerUsername,
+                                                  this.monthNumber, this.yearNumber, this.entries.size());
+        }
+        return saved;
+    }
+
+
+    // Turns an entry into its line in the calendar file.
+    private static String entryLine(Entry entry) {
+        return entry.getDateString() + ", " + CalendarFileParser.escape(entry.getTitle()) + ", " +
+               entry.getTimeStartString() + ", " + entry.getTimeEndString() + ", " +
+               CalendarFileParser.escape(entry.getDescription());
+    }
+
+
+    private void appendRecord(Entry removed, Entry added) {
+        // Appends one change to the calendar file instead of writing the whole calendar again.
+        // An added entry is written as a normal entry line. A removed entry is written as its line after "- ".
+        // An edit passes both, so they are appended together before the file is considered for compaction.
+        // Only done for calendars that were saved or loaded and whose file was not deleted since.
+        String filePath = "data/calendars/" + this.folderName + "/" + this.calendarName + ".txt";
+        if (this.folderName == null || !new File(filePath).exists()) {
+            return;
+        }
+        if (!this.escapedFormat) {
+            writeCalendarFile();    // Older file: written once in the escaped format instead of mixing the two.
+            return;
+        }
+
+        try (FileWriter writer = new FileWriter(filePath, true)) {
+            if (!endsWithLineBreak(new File(filePath))) {
+                writer.write(System.lineSeparator());   // Ends a record torn by a crash so the next one is not glued to it.
+            }
+            if (removed != null) {
+                writer.write("- " + entryLine(removed) + System.lineSeparator());
+            }
+            if (added != null) {
+                writer.write(entryLine(added) + System.lineSeparator());
+            }
+        } catch (IOException e) {
+            System.out.println("Error saving calendar change: " + e.getMessage());
+            return;
+        }
+
+        // Compacts the file once removed entries take up more of it than the entries left.
+        if (removed != null) {
+            this.removalRecords++;
+        }
+        if (this.removalRecords > Math.max(32, this.entries.size())) {
+            writeCalendarFile();
+        } else {
+            CalendarManifest.getInstance().updateInMemory(this.folderName, this.calendarName, this.ownerUsername,
+                                                          this.monthNumber, this.yearNumber, this.entries.size());
+        }
+    }
+
+
+    // Checks if a file is empty or ends with a line break, reading only its last byte.
+    private static boolean endsWithLineBreak(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (length == 0) {
+                return true;
+            }
+            raf.seek(length - 1);
+            int last = raf.read();
+            return last == '\n' || last == '\r';
+        }
+    }
+
+
+    // Checks if two entries would be written as the same line.
+    private static boolean sameEntry(Entry first, Entry second) {
+        return first.getDate().equals(second.getDate()) && first.getTitle().equals(second.getTitle()) &&
+               first.getTimeStart().equals(second.getTimeStart()) && first.getTimeEnd().equals(second.getTimeEnd()) &&
+               first.getDescription().equals(second.getDescription());
     }
 
 
     public boolean deleteCalendar(String username, String calendarID) {
-        // Deletes the calendar file.
-        String filePath = (username.equals("-1")) ? 
-            "data/calendars/public/" + calendarID + ".txt" : 
-            "data/calendars/" + username + "/" + calendarID + ".txt";
+        // Deletes the calendar file and its row in the calendar manifest.
+        String folderName = (username.equals("-1")) ? "public" : username;
+        String filePath = "data/calendars/" + folderName + "/" + calendarID + ".txt";
 
         File file = new File(filePath);
         if (file.exists()) {
-            return file.delete();       // Returns true if deletion was successful.
+            boolean deleted = file.delete();
+            if (deleted) {
+                CalendarManifest.getInstance().remove(folderName, calendarID);
+            }
+            return deleted;       // Returns true if deletion was successful.
         } else {
             System.out.println("Calendar file does not exist.");
             return false;       // File not found.
@@ -274,36 +389,44 @@ public class MonthCalendar {
 
     public boolean loadCalendar(String username, String calendarID) {
     // Loads the calendar from the specified owner ID and calendar ID.
-        String filePath = username.equals("public") ? 
-            "data/calendars/public/" + calendarID + ".txt" : 
-            "data/calendars/" + username + "/" + calendarID + ".txt";
+    // Entry lines are scanned in place by CalendarFileParser instead of being split into strings.
+    // Removal records appended by later changes take out the first matching entry read before them.
+        String folder = username.equals("public") ? "public" : username;
+        String filePath = "data/calendars/" + folder + "/" + calendarID + ".txt";
         
         boolean returnValue = false;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            reader.readLine();      // Skips over ownerUsername.
-            this.monthNumber = Integer.parseInt(reader.readLine().trim());
-            this.yearNumber = Integer.parseInt(reader.readLine().trim());
+        try (CalendarFileParser parser = new CalendarFileParser(new FileReader(filePath))) {
+            String owner = parser.readLine();
+            this.monthNumber = Integer.parseInt(parser.readLine().trim());
+            this.yearNumber = Integer.parseInt(parser.readLine().trim());
             this.daysInMonth = YearMonth.of(this.yearNumber, this.monthNumber).lengthOfMonth();
             this.startDay = convertStartDay(LocalDate.of(this.yearNumber, this.monthNumber, 1).getDayOfWeek().getValue());
             this.currentDay = -1;   // No current day set for specified month/year.
             this.entries.clear();   // Clear existing entries before loading.
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(", ");
-                LocalDate date = LocalDate.parse(parts[0].trim());
-                String title = parts[1].trim();
-                LocalTime timeStart = LocalTime.parse(parts[2].trim());
-                LocalTime timeEnd = LocalTime.parse(parts[3].trim());
-                String description = parts.length > 4 ? parts[4].trim() : "";
-
-                Entry entry = new Entry(title, description);
-                entry.setDate(date.toString());
-                entry.setStartTime(timeStart.toString());
-                entry.setEndTime(timeEnd.toString());
-                this.entries.add(entry);
+            this.removalRecords = 0;
+            this.escapedFormat = parser.readFormat();
+
+            Entry entry;
+            while ((entry = parser.readEntry()) != null) {
+                if (!parser.isRemoval()) {
+                    this.entries.add(entry);
+                } else {
+                    int index = 0;
+                    while (index < this.entries.size() && !sameEntry(this.entries.get(index), entry)) {
+                        index++;
+                    }
+                    if (index < this.entries.size()) {
+                        this.entries.remove(index);
+                    }
+                    this.removalRecords++;
+                }
             }
+
+            // Later changes are appended to the file this calendar was loaded from.
+            this.ownerUsername = owner;
+            this.calendarName = calendarID;
+            this.folderName = folder;
             returnValue = true;
         } catch (IOException e) {
             System.out.println("Error loading calendar: " + e.getMessage());
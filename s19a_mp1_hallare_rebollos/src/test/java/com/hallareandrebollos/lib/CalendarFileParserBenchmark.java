@@ -0,0 +1,122 @@
+package com.hallareandrebollos.lib;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.hallareandrebollos.objects.Entry;
+
+// Compares loading a calendar file with CalendarFileParser against the split-based loader it replaced.
+// Run after "mvn test-compile" with:
+//   java -cp target/classes:target/test-classes com.hallareandrebollos.lib.CalendarFileParserBenchmark [lines] [rounds]
+// Defaults to 1,000,000 entry lines and 5 timed rounds after 2 warm-up rounds.
+public class CalendarFileParserBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        File file = File.createTempFile("calendar-benchmark", ".txt");
+        file.deleteOnExit();
+        writeFile(file, lines);
+        System.out.println("File: " + lines + " entry lines, " + (file.length() / (1024 * 1024)) + " MB");
+
+        for (int round = -2; round < rounds; round++) {
+            long splitNanos = time(() -> loadWithSplit(file), lines);
+            long parserNanos = time(() -> loadWithParser(file), lines);
+            if (round >= 0) {   // The first rounds only warm up the JIT.
+                System.out.println(String.format("Round %d: split %,d ms (%,.0f lines/s), parser %,d ms (%,.0f lines/s)",
+                                                 round + 1, splitNanos / 1_000_000, lines * 1e9 / splitNanos,
+                                                 parserNanos / 1_000_000, lines * 1e9 / parserNanos));
+            }
+        }
+    }
+
+
+    // A loader that returns how many entries it read.
+    private interface Loader {
+        int load() throws IOException;
+    }
+
+
+    // Runs a loader once and returns how long it took. Fails if it did not read every line.
+    private static long time(Loader loader, int lines) throws IOException {
+        long start = System.nanoTime();
+        int loaded = loader.load();
+        long elapsed = System.nanoTime() - start;
+        if (loaded != lines) {
+            throw new IllegalStateException("Loaded " + loaded + " of " + lines + " entries");
+        }
+        return elapsed;
+    }
+
+
+    // Writes a calendar file the way MonthCalendar saves one, with descriptions of varying length.
+    private static void writeFile(File file, int lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("owner");
+            writer.newLine();
+            writer.write("5");
+            writer.newLine();
+            writer.write("2030");
+            writer.newLine();
+            writer.write(CalendarFileParser.ESCAPED_FORMAT_MARKER);
+            writer.newLine();
+            for (int i = 0; i < lines; i++) {
+                LocalTime start = LocalTime.of(i % 24, i % 60);
+                writer.write(LocalDate.of(2030, 5, 1 + i % 31) + ", Entry " + i + ", " + start + ", "
+                             + start.plusMinutes(30) + ", Description of entry " + i + " with some more text");
+                writer.newLine();
+            }
+        }
+    }
+
+
+    // The loader MonthCalendar used before CalendarFileParser: split each line on ", " and parse each part.
+    private static int loadWithSplit(File file) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            reader.readLine();
+            reader.readLine();
+            reader.readLine();
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(", ");
+                LocalDate date = LocalDate.parse(parts[0].trim());
+                String title = parts[1].trim();
+                LocalTime timeStart = LocalTime.parse(parts[2].trim());
+                LocalTime timeEnd = LocalTime.parse(parts[3].trim());
+                String description = parts.length > 4 ? parts[4].trim() : "";
+
+                Entry entry = new Entry(title, description);
+                entry.setDate(date.toString());
+                entry.setStartTime(timeStart.toString());
+                entry.setEndTime(timeEnd.toString());
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    // The current loader: header lines, format marker, then entries scanned in place.
+    private static int loadWithParser(File file) throws IOException {
+        int count = 0;
+        try (CalendarFileParser parser = new CalendarFileParser(new FileReader(file))) {
+            parser.readLine();
+            parser.readLine();
+            parser.readLine();
+            parser.readFormat();
+            while (parser.readEntry() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
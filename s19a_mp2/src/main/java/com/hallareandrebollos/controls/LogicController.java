@@ -2,17 +2,25 @@ package com.hallareandrebollos.controls;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 
 import com.hallareandrebollos.models.Account;
 import com.hallareandrebollos.models.CalendarObject;
+import com.hallareandrebollos.models.CalendarRegistry;
 import com.hallareandrebollos.models.Entry;
 import com.hallareandrebollos.models.Event;
 import com.hallareandrebollos.models.FamilyCalendar;
 import com.hallareandrebollos.models.Journal;
 import com.hallareandrebollos.models.Meeting;
+import com.hallareandrebollos.models.MonthEntries;
 import com.hallareandrebollos.models.Task;
 import com.hallareandrebollos.models.Theme;
+import com.hallareandrebollos.models.WeekEntries;
+import com.hallareandrebollos.persistence.DataStore;
 
 /**
  * Controls the logic of the calendar application, including account management,
@@ -23,14 +31,17 @@ public class LogicController {
     /** List of all user accounts. */
     private ArrayList<Account> accounts;
 
-    /** List of all calendar objects (both public and private). */
-    private ArrayList<CalendarObject> CalendarObjects;
+    /** Position of each account in {@code accounts}, keyed by username. */
+    private HashMap<String, Integer> accountIndexByUsername;
+
+    /** Registry of all calendar objects (both public and private). */
+    private CalendarRegistry calendarRegistry;
 
     /** Index of the currently logged-in account. */
     private int accountIndex;
 
-    /** Index of the currently selected calendar object. */
-    private int CalendarObjectIndex;
+    /** Registry handle of the currently selected calendar object. */
+    private int CalendarObjectHandle;
 
     /** Currently selected month (1–12) for calendar view. */
     private int selectedMonth;
@@ -44,16 +55,44 @@ public class LogicController {
     /** Current application theme. */
     private Theme currentTheme;
 
+    /** Saves every account, calendar and entry change to disk. */
+    private DataStore dataStore;
+
 
     /**
-     * Constructs a LogicController and initializes all lists and indices.
+     * Constructs a LogicController, initializes all lists and indices, and loads
+     * the saved data from the default data directory.
      */
     public LogicController() {
+        this(new DataStore(DataStore.DEFAULT_DIRECTORY));
+    }
+
+
+    /**
+     * Constructs a LogicController, initializes all lists and indices, and loads
+     * the saved data from the given store.
+     * @param dataStore The store to load from and save changes to.
+     */
+    public LogicController(DataStore dataStore) {
         this.accounts = new ArrayList<>();
-        this.CalendarObjects = new ArrayList<>();
+        this.accountIndexByUsername = new HashMap<>();
+        this.calendarRegistry = new CalendarRegistry();
         this.accountIndex = -1; // No account is logged in initially
-        this.CalendarObjectIndex = -1; // No CalendarObject is selected initially
+        this.CalendarObjectHandle = -1; // No CalendarObject is selected initially
         this.currentTheme = new Theme(); // Initialize with default light theme
+        this.dataStore = dataStore;
+        this.dataStore.load(this.accounts, this.calendarRegistry);
+        for (int i = 0; i < this.accounts.size(); i++) {
+            this.accountIndexByUsername.put(this.accounts.get(i).getUsername(), i);
+        }
+    }
+
+
+    /**
+     * Saves any pending data and closes the store. Called when the application exits.
+     */
+    public void closeDataStore() {
+        this.dataStore.close();
     }
 
 
@@ -66,11 +105,11 @@ public class LogicController {
      */
     public boolean authenticateAccount(String username, String password) {
         boolean isAuthenticated = false;
-        for (int i = 0; i < accounts.size(); i++) {
-            Account account = accounts.get(i);
+        int index = getAccountFromIndex(username);
+        if (index >= 0) {
+            Account account = accounts.get(index);
             if (account.authenticate(username, password) && account.getIsActive()) {
-                this.accountIndex = i;
-                i += accounts.size();
+                this.accountIndex = index;
                 isAuthenticated = true;
             }
         }
@@ -83,7 +122,7 @@ public class LogicController {
      */
     public void logoutAccount() {
         this.accountIndex = -1;
-        this.CalendarObjectIndex = -1;
+        this.CalendarObjectHandle = -1;
     }
 
 
@@ -95,16 +134,22 @@ public class LogicController {
     public void addAccount(String username, String password) {
         Account account = new Account(username, password);
         accounts.add(account);
+        accountIndexByUsername.put(username, accounts.size() - 1);
+        dataStore.accountAdded(account);
     }
 
 
     /**
-     * Deactivates the currently logged-in account.
+     * Deactivates the currently logged-in account. The account keeps its slot in the
+     * username index, so its username stays taken, but its calendars are dropped from
+     * the owner index.
      */
     public void deactivateAccount() {
         if (this.accountIndex >= 0 && this.accountIndex < accounts.size()) {
             Account account = accounts.get(this.accountIndex);
             account.setIsActive(false);
+            calendarRegistry.releaseOwner(account.getUsername());
+            dataStore.accountDeactivated(account.getUsername());
         }
     }
 
@@ -115,14 +160,7 @@ public class LogicController {
      * @return true if username exists, false otherwise.
      */
     public boolean existingUsername(String username) {
-        boolean isUsernameExisting = false;
-        for (int i = 0; i < this.accounts.size(); i++) {
-            if (this.accounts.get(i).getUsername().equals(username)) {
-                isUsernameExisting = true;
-                i += this.accounts.size();
-            }
-        }
-        return isUsernameExisting;
+        return this.accountIndexByUsername.containsKey(username);
     }
 
 
@@ -137,11 +175,13 @@ public class LogicController {
     public void addCalendarObject(String username, String CalendarObjectName, boolean isPublic) {
         if (!checkCalendarDuplicate(CalendarObjectName, isPublic, username)) {
             CalendarObject CalendarObject = new CalendarObject(CalendarObjectName, isPublic);
-            CalendarObjects.add(CalendarObject);
+            calendarRegistry.register(CalendarObject, username);
+            dataStore.calendarAdded(CalendarObject);
             int accountIndex = getAccountFromIndex(username);
             if (accountIndex >= 0 && accountIndex < accounts.size()) {
                 Account account = accounts.get(accountIndex);
                 account.addOwnedCalendar(CalendarObjectName);
+                dataStore.calendarOwned(username, CalendarObjectName);
             } else {
                 System.out.println("Account not found: " + username);
             }
@@ -154,11 +194,14 @@ public class LogicController {
     /**
      * Adds an existing CalendarObject to the system.
      * @param calendarObject The CalendarObject to add.
-     * @return true if successfully added, false if null.
+     * @return true if successfully added, false if null or its name and visibility are already taken.
      */
     public boolean addCalendarInstance(CalendarObject calendarObject) {
-        if (calendarObject != null) {
-            CalendarObjects.add(calendarObject);
+        if (calendarObject != null && calendarRegistry.register(calendarObject) >= 0) {
+            dataStore.calendarAdded(calendarObject);
+            for (Entry entry : calendarObject.getEntries()) {
+                dataStore.entryAdded(calendarObject, entry);
+            }
             return true;
         }
         return false;
@@ -169,14 +212,16 @@ public class LogicController {
      * Removes the currently selected calendar from the system.
      */
     public void removeCurrentCalendarObject() {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
+        CalendarObject currentCalendarObject = getCurrentCalendarObject();
+        if (currentCalendarObject != null) {
             if (this.accountIndex >= 0 && this.accountIndex < accounts.size()) {
                 Account currentAccount = accounts.get(this.accountIndex);
-                String calendarName = CalendarObjects.get(this.CalendarObjectIndex).getCalendarName();
-                currentAccount.removeOwnedCalendar(calendarName);
-            CalendarObjects.remove(this.CalendarObjectIndex);
+                currentAccount.removeOwnedCalendar(currentCalendarObject.getCalendarName());
+                dataStore.calendarDisowned(currentAccount.getUsername(), currentCalendarObject.getCalendarName());
+                dataStore.calendarRemoved(currentCalendarObject.getHandle());
+                calendarRegistry.remove(currentCalendarObject);
             }
-            this.CalendarObjectIndex = -1;
+            this.CalendarObjectHandle = -1;
         }
     }
 
@@ -192,8 +237,8 @@ public class LogicController {
                                                 String priority, String status, String createdBy, String finishedBy,
                                                 String venue, String organizer, String modality, String link, 
                                                 LocalTime startTime, LocalTime endTime) {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
-            CalendarObject currentCalendarObject = CalendarObjects.get(this.CalendarObjectIndex);
+        CalendarObject currentCalendarObject = getCurrentCalendarObject();
+        if (currentCalendarObject != null) {
             Entry entry = null;
             boolean canAdd = false;
 
@@ -227,12 +272,7 @@ public class LogicController {
                     }
 
                 } else if (type.equals("journal")) {
-                    boolean journalExists = false;
-                    for (Entry e : currentCalendarObject.getEntries()) {
-                        if (e instanceof Journal && e.getDate().equals(date)) {
-                            journalExists = true;
-                        }
-                    }
+                    boolean journalExists = currentCalendarObject.hasJournalOn(date);
                     if (!journalExists && description != null && !description.isBlank()) {
                         entry = new Journal(title, date, description);
                         canAdd = true;
@@ -241,40 +281,124 @@ public class LogicController {
             }
             
             if (canAdd && entry != null) {
-                currentCalendarObject.addEntry(entry);
+                addEntryToCurrentCalendarObject(entry);
             }
         }
     }
 
 
+    /**
+     * Adds an already built entry to the currently selected calendar.
+     * @param entry The entry to add. It is given a new id.
+     * @return true if a calendar is selected and the entry was added.
+     */
+    public boolean addEntryToCurrentCalendarObject(Entry entry) {
+        CalendarObject currentCalendarObject = getCurrentCalendarObject();
+        if (currentCalendarObject != null) {
+            currentCalendarObject.addEntry(entry);
+            dataStore.entryAdded(currentCalendarObject, entry);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Adds a batch of already built entries to a calendar, such as entries read from
+     * an imported file. Journals on a date that already has one are left out.
+     * @param calendar The calendar to add to; it need not be the selected one.
+     * @param batch    The entries to add. They are given new ids.
+     * @return The number of entries added.
+     */
+    public int addEntriesToCalendarObject(CalendarObject calendar, List<Entry> batch) {
+        if (calendar == null || calendar.getHandle() < 0) {
+            return 0;
+        }
+        dataStore.ensureLoaded(calendar);
+        ArrayList<Entry> added = new ArrayList<>(batch.size());
+        HashSet<LocalDate> journalDates = new HashSet<>();
+        for (Entry entry : batch) {
+            if (!(entry instanceof Journal)
+                    || (!calendar.hasJournalOn(entry.getDate()) && journalDates.add(entry.getDate()))) {
+                added.add(entry);
+            }
+        }
+        calendar.addEntries(added);
+        dataStore.entriesAdded(calendar, added);
+        return added.size();
+    }
+
+
     /**
      * Edits an existing entry in the currently selected calendar.
      * @param oldEntry The entry to replace.
      * @param newEntry The new entry data.
      */
     public void editEntryInCurrentCalendarObject(Entry oldEntry, Entry newEntry) {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
-            CalendarObject currentCalendarObject = CalendarObjects.get(this.CalendarObjectIndex);
-            currentCalendarObject.editEntry(oldEntry, newEntry);
+        editEntryInCurrentCalendarObject(oldEntry.getId(), newEntry);
+    }
+
+
+    /**
+     * Replaces the entry with the given id in the currently selected calendar.
+     * The new entry takes over the old entry's id.
+     * @param entryId  Id of the entry to replace.
+     * @param newEntry The new entry data.
+     * @return true if the entry was found and replaced.
+     */
+    public boolean editEntryInCurrentCalendarObject(long entryId, Entry newEntry) {
+        CalendarObject currentCalendarObject = getCurrentCalendarObject();
+        if (currentCalendarObject != null && currentCalendarObject.editEntry(entryId, newEntry)) {
+            dataStore.entryEdited(currentCalendarObject, newEntry);
+            return true;
         }
+        return false;
     }
 
 
     /**
-     * Removes an entry from the currently selected calendar based on title.
-     * @param title Title of the entry to remove.
+     * Removes the entry with the given id from the currently selected calendar.
+     * @param entryId Id of the entry to remove.
+     * @return true if the entry was found and removed.
      */
-    public void removeEntryFromCurrentCalendarObject(String title) {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
-            CalendarObject currentCalendarObject = CalendarObjects.get(this.CalendarObjectIndex);
-            ArrayList<Entry> entries = currentCalendarObject.getEntries();
-            for (int i = 0; i < entries.size(); i++) {
-                if (entries.get(i).getTitle().equals(title)) {
-                    currentCalendarObject.removeEntry(entries.get(i));
-                    i += entries.size();
-                }
-            }
+    public boolean removeEntryFromCurrentCalendarObject(long entryId) {
+        CalendarObject currentCalendarObject = getCurrentCalendarObject();
+        if (currentCalendarObject != null && currentCalendarObject.removeEntry(entryId)) {
+            dataStore.entryRemoved(currentCalendarObject, entryId);
+            return true;
         }
+        return false;
+    }
+
+
+    /**
+     * Checks whether the currently selected calendar already has a journal on the given date.
+     * @param date The date to check.
+     * @return true if a journal exists on that date, false otherwise or if no calendar is selected.
+     */
+    public boolean hasJournalOnDate(LocalDate date) {
+        CalendarObject current = getCurrentCalendarObject();
+        return current != null && current.hasJournalOn(date);
+    }
+
+
+    /**
+     * Finds the meetings and events of the currently selected calendar that overlap a time range.
+     * @param date           The date of the range.
+     * @param start          The start of the range.
+     * @param end            The end of the range.
+     * @param excludeEntryId Id of an entry to leave out, such as the one being edited, or -1 for none.
+     * @return The conflicting entries ordered by start time. Returns an empty list if no calendar
+     *         is selected or nothing overlaps.
+     */
+    public ArrayList<Entry> getConflictingEntries(LocalDate date, LocalTime start, LocalTime end, long excludeEntryId) {
+        ArrayList<Entry> conflicts = new ArrayList<>();
+        CalendarObject current = getCurrentCalendarObject();
+        if (current != null && date != null && start != null && end != null) {
+            conflicts = current.getOverlappingEntries(date, start, end);
+            conflicts.removeIf(entry -> entry.getId() == excludeEntryId);
+        }
+        return conflicts;
     }
 
 
@@ -287,33 +411,79 @@ public class LogicController {
     public ArrayList<Entry> getEntriesForDate(LocalDate date) {
         ArrayList<Entry> result = new ArrayList<>();
 
-        if (CalendarObjectIndex >= 0 && CalendarObjectIndex < CalendarObjects.size()) {
-            CalendarObject current = CalendarObjects.get(CalendarObjectIndex);
-            ArrayList<Entry> entries = current.getEntries();
+        CalendarObject current = getCurrentCalendarObject();
+        if (current != null) {
+            result = current.getEntriesForDate(date);
+        }
 
-            for (Entry e : entries) {
-                if (e.getDate().equals(date)) {
-                    result.add(e);
-                }
-            }
+        return result;
+    }
+
+
+    /**
+     * Retrieves all entries from the currently selected calendar between two dates, inclusive.
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return A list of entries within the range ordered by date. Returns an empty list if no
+     *         calendar is selected or no entries fall within the range.
+     */
+    public ArrayList<Entry> getEntriesBetween(LocalDate from, LocalDate to) {
+        ArrayList<Entry> result = new ArrayList<>();
+
+        CalendarObject current = getCurrentCalendarObject();
+        if (current != null) {
+            result = current.getEntriesBetween(from, to);
         }
 
         return result;
     }
 
 
+    /**
+     * Retrieves all entries of a month from the currently selected calendar, bucketed per day
+     * with per-type counts.
+     * @param yearMonth The month to retrieve.
+     * @return The month's entries grouped by day. Empty if no calendar is selected.
+     */
+    public MonthEntries getEntriesForMonth(YearMonth yearMonth) {
+        CalendarObject current = getCurrentCalendarObject();
+        if (current != null) {
+            return current.getMonthEntries(yearMonth);
+        }
+        return new MonthEntries(yearMonth);
+    }
+
+
+    /**
+     * Retrieves all entries of a week from the currently selected calendar, bucketed per day.
+     * @param weekStart The first day of the week.
+     * @return The week's entries grouped by day. Empty if no calendar is selected.
+     */
+    public WeekEntries getEntriesForWeek(LocalDate weekStart) {
+        CalendarObject current = getCurrentCalendarObject();
+        if (current != null) {
+            return current.getWeekEntries(weekStart);
+        }
+        return new WeekEntries(weekStart, -1);
+    }
+
+
     /**
      * Converts a calendar to public visibility by name.
      * @param CalendarObjectName Name of the calendar to convert.
      */
     public void convertToPublic(String CalendarObjectName) {
-        for (int i = 0; i < this.CalendarObjects.size(); i++) {
-            if (this.CalendarObjects.get(i).getCalendarName().equals(CalendarObjectName)) {
-                CalendarObjects.get(i).setIsPublic(true);
-                i += this.CalendarObjects.size();
+        CalendarObject calendarObject = calendarRegistry.find(CalendarObjectName, false);
+        if (calendarObject != null) {
+            calendarObject.setIsPublic(true);
+            if (!calendarObject.isPublic()) {
+                System.out.println("Duplicate Found. A public calendar already uses this name.");
+            } else {
+                dataStore.visibilityChanged(calendarObject);
             }
+        } else if (!calendarRegistry.contains(CalendarObjectName, true)) {
+            System.out.println("CalendarObject not found.");
         }
-        System.out.println("CalendarObject not found.");
     }
 
 
@@ -331,12 +501,15 @@ public class LogicController {
 
 
     /**
-     * Sets the current calendar object index.
-     * @param index Index to set as current calendar.
+     * Sets the current calendar object by its registry handle, loading its entries
+     * from disk if they are not in memory yet.
+     * @param index Handle of the calendar to set as current.
      */
     public void setCalendarObjectIndex(int index) {
-        if (index >= 0 && index < CalendarObjects.size()) {
-            this.CalendarObjectIndex = index;
+        CalendarObject calendarObject = calendarRegistry.get(index);
+        if (calendarObject != null) {
+            dataStore.ensureLoaded(calendarObject);
+            this.CalendarObjectHandle = index;
         } else {
             System.out.println("Invalid CalendarObject index.");
         }
@@ -344,14 +517,16 @@ public class LogicController {
 
 
     /**
-     * Sets the current calendar object.
+     * Sets the current calendar object, loading its entries from disk if they are
+     * not in memory yet.
      * @param calendar The calendar object to set as current.
      */
     public void setCurrentCalendar(CalendarObject calendar) {
         if (calendar != null) {
-            this.CalendarObjectIndex = CalendarObjects.indexOf(calendar);
+            dataStore.ensureLoaded(calendar);
+            this.CalendarObjectHandle = calendar.getHandle();
         } else {
-            this.CalendarObjectIndex = -1; // No calendar selected
+            this.CalendarObjectHandle = -1; // No calendar selected
         }
     }
 
@@ -369,17 +544,31 @@ public class LogicController {
 
 
     /**
-     * Returns all public calendars in the system.
-     * @return List of public CalendarObjects.
+     * Returns all public calendars in the system, sorted by name.
+     * @return A read-only list of public CalendarObjects, maintained as calendars change.
      */
-    public ArrayList<CalendarObject> getPublicCalendarObjects() {
-        ArrayList<CalendarObject> publicCalendarObjects = new ArrayList<>();
-        for (CalendarObject calendarObject : this.CalendarObjects) {
-            if (calendarObject.isPublic()) {
-                publicCalendarObjects.add(calendarObject);
-            }
-        }
-        return publicCalendarObjects;
+    public List<CalendarObject> getPublicCalendarObjects() {
+        return this.calendarRegistry.getPublicCalendars();
+    }
+
+
+    /**
+     * Returns one page of the public calendars, sorted by name.
+     * @param offset Position of the first calendar of the page.
+     * @param limit  Maximum number of calendars in the page.
+     * @return A read-only list of at most {@code limit} public CalendarObjects.
+     */
+    public List<CalendarObject> getPublicCalendarPage(int offset, int limit) {
+        return this.calendarRegistry.getPublicCalendarPage(offset, limit);
+    }
+
+
+    /**
+     * Returns the number of public calendars in the system.
+     * @return The public calendar count.
+     */
+    public int getPublicCalendarCount() {
+        return this.calendarRegistry.getPublicCount();
     }
 
 
@@ -391,8 +580,8 @@ public class LogicController {
         ArrayList<CalendarObject> privateCalendarObjects = new ArrayList<>();
         Account currentAccount = getCurrentAccount();
         if (currentAccount == null) return privateCalendarObjects;
-        for (CalendarObject calendarObject : this.CalendarObjects) {
-            if (!calendarObject.isPublic() && currentAccount.getOwnedCalendars().contains(calendarObject.getCalendarName())) {
+        for (CalendarObject calendarObject : this.calendarRegistry.getCalendarsOwnedBy(currentAccount.getUsername())) {
+            if (!calendarObject.isPublic()) {
                 privateCalendarObjects.add(calendarObject);
             }
         }
@@ -405,28 +594,19 @@ public class LogicController {
      * @return The selected CalendarObject or null if none.
      */
     public CalendarObject getCurrentCalendarObject() {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
-            return CalendarObjects.get(this.CalendarObjectIndex);
-        }
-        return null; // No CalendarObject is selected
+        return calendarRegistry.get(this.CalendarObjectHandle); // null if no CalendarObject is selected
     }
 
 
     /**
-     * Returns the index of a calendar by name and visibility.
+     * Returns the registry handle of a calendar by name and visibility.
      * @param CalendarObjectName Name of the calendar.
      * @param isPublic Whether the calendar is public.
-     * @return Index of the matching calendar or -1 if not found.
+     * @return Handle of the matching calendar or -1 if not found.
      */
     public int getCalendarFromName(String CalendarObjectName, boolean isPublic) {
-        int foundIdx = -1;
-        for (int i = 0; i < this.CalendarObjects.size(); i++) {
-            if (this.CalendarObjects.get(i).getCalendarName().equals(CalendarObjectName) && this.CalendarObjects.get(i).isPublic() == isPublic) {
-                foundIdx = i;
-                i += this.CalendarObjects.size();
-            }
-        }
-        return foundIdx;
+        CalendarObject calendarObject = this.calendarRegistry.find(CalendarObjectName, isPublic);
+        return calendarObject != null ? calendarObject.getHandle() : -1;
     }
 
 
@@ -436,14 +616,8 @@ public class LogicController {
      * @return the index of the matching account, or -1 if not found.
      */
     public int getAccountFromIndex(String username) {
-        int foundIdx = -1;
-        for (int i = 0; i < this.accounts.size(); i++) {
-            if (this.accounts.get(i).getUsername().equals(username)) {
-                foundIdx = i;
-                i += this.accounts.size();
-            }
-        }
-        return foundIdx;
+        Integer foundIdx = this.accountIndexByUsername.get(username);
+        return foundIdx != null ? foundIdx : -1;
     }
     
 
@@ -519,18 +693,7 @@ public class LogicController {
      * @return true if a duplicate exists; false otherwise.
      */
     public boolean checkCalendarDuplicate(String calendarName, boolean isPublic, String username) {
-        boolean isDuplicate = false;
-        for (CalendarObject obj : this.CalendarObjects) {
-            if (obj.getCalendarName().equals(calendarName)) {
-            if (isPublic && obj.isPublic()) {
-                isDuplicate = true;
-            }
-            if (!isPublic && !obj.isPublic()) {
-                isDuplicate = true;
-            }
-            }
-        }
-        return isDuplicate;
+        return this.calendarRegistry.contains(calendarName, isPublic);
     }
 
     /**
@@ -543,7 +706,9 @@ public class LogicController {
      */
     public void addFamilyCalendar(String username, String calendarName, int passcode) {
         FamilyCalendar familyCalendar = new FamilyCalendar(passcode, calendarName, true);
-        addCalendarInstance(familyCalendar);
+        if (calendarRegistry.register(familyCalendar, username) >= 0) {
+            dataStore.calendarAdded(familyCalendar);
+        }
     }
 
 
@@ -553,11 +718,7 @@ public class LogicController {
      * @return {@code true} if the current calendar is a FamilyCalendar; {@code false} otherwise.
      */
     public boolean checkCurrentCalendarIsFamily() {
-        if (this.CalendarObjectIndex >= 0 && this.CalendarObjectIndex < CalendarObjects.size()) {
-            CalendarObject currentCalendar = CalendarObjects.get(this.CalendarObjectIndex);
-            return currentCalendar instanceof FamilyCalendar;
-        }
-        return false;
+        return getCurrentCalendarObject() instanceof FamilyCalendar;
     }
 
 
@@ -569,7 +730,7 @@ public class LogicController {
      */
     public FamilyCalendar getCurrentFamilyCalendar() {
         if (checkCurrentCalendarIsFamily()) {
-            CalendarObject currentCalendar = CalendarObjects.get(this.CalendarObjectIndex);
+            CalendarObject currentCalendar = getCurrentCalendarObject();
             if (currentCalendar instanceof FamilyCalendar) {
                 return (FamilyCalendar) currentCalendar;
             }
@@ -577,11 +738,17 @@ public class LogicController {
         return null; // No FamilyCalendar is selected
     }
 
+    /**
+     * Changes the password of the account with the given username.
+     * @param username    The username of the account to update.
+     * @param newPassword The new password.
+     */
     public void changePassword(String username, String newPassword) {
         int accountIndex = getAccountFromIndex(username);
         if (accountIndex >= 0 && accountIndex < accounts.size()) {
             Account account = accounts.get(accountIndex);
             account.setPassword(newPassword);
+            dataStore.passwordChanged(username, newPassword);
         } else {
             System.out.println("Account not found: " + username);
         }
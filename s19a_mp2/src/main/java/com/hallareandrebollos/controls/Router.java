@@ -2,7 +2,10 @@
 package com.hallareandrebollos.controls;
 
 import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -16,6 +19,7 @@ import com.hallareandrebollos.views.EntryForm;
 import com.hallareandrebollos.views.LandingPage;
 import com.hallareandrebollos.views.MenuPage;
 import com.hallareandrebollos.views.WeeklyView;
+import com.hallareandrebollos.widgets.pieChart;
 
 
 /**
@@ -44,8 +48,8 @@ public final class Router extends JFrame {
     /** List view of all accessible calendars. */
     private CalendarListPage calendarListPage;
     
-    /** Monthly calendar view. */
-    private CalendarPage calendarPage;
+    /** Monthly calendar view, bound to whichever calendar is opened. */
+    private final CalendarPage calendarPage;
     
     /** Weekly calendar view. */
     private final WeeklyView weeklyView;
@@ -71,6 +75,13 @@ public final class Router extends JFrame {
 
         // Logic Controller.
         this.logicController = new LogicController();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                logicController.closeDataStore();
+                pieChart.printImageCacheStats();
+            }
+        });
 
         // Individual Pages.
         this.landingPage = new LandingPage(this, this.logicController);
@@ -141,8 +152,10 @@ public final class Router extends JFrame {
      * @param calendar the calendar object to load
      */
     public void showCalendarPage(CalendarObject calendar) {
-        this.logicController.setCurrentCalendar(calendar);
-        this.calendarPage = new CalendarPage(this, this.logicController);
+        int year = this.logicController.getSelectedYear();
+        int month = this.logicController.getSelectedMonth();
+        YearMonth yearMonth = year != 0 && month != 0 ? YearMonth.of(year, month) : YearMonth.now();
+        this.calendarPage.bind(calendar, yearMonth);
         showPage(this.calendarPage);
     }
 
@@ -182,7 +195,6 @@ public final class Router extends JFrame {
      * @param startDate the date to anchor the weekly view, or null for current date
      */
     public void showWeeklyView(LocalDate startDate) {
-        this.weeklyView.updateWeekView();
         if (startDate != null) {
             this.weeklyView.moveToSpecificWeek(startDate);
         } else {
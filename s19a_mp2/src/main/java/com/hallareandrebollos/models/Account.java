@@ -48,6 +48,15 @@ public class Account {
     }
 
 
+    /**
+     * Returns the password of the account, for saving it to disk.
+     * @return The password.
+     */
+    public String getPassword() {
+        return this.password;
+    }
+
+
     /**
      * Returns the list of calendar names owned by this account.
      * @return A list of owned calendar names.
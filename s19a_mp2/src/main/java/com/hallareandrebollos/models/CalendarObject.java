@@ -1,6 +1,14 @@
 package com.hallareandrebollos.models;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.TreeMap;
 
 /**
  * Represents a calendar that contains multiple entries.
@@ -14,8 +22,53 @@ public class CalendarObject {
     /** Indicates if the calendar is public or private. */
     private boolean isPublic;
 
-    /** List of entries in the calendar. */
-    final private ArrayList<Entry> entries;
+    /** Entries in the calendar keyed by their id, in insertion order. */
+    final private LinkedHashMap<Long, Entry> entries;
+
+    /** Id given to the next entry added to the calendar. */
+    private long nextEntryId;
+
+    /**
+     * Entries bucketed by date, kept in sync with {@code entries} for per-day and range lookups.
+     * Each bucket is kept in display order: journals and tasks first, then meetings and
+     * events by start time, those without a start time leading. Changed only while
+     * holding this calendar's lock, so {@link #getWeekEntries} can copy from it on another thread.
+     */
+    final private TreeMap<LocalDate, ArrayList<Entry>> entriesByDate;
+
+    /** Number of journals on each date that has any, for the one-journal-per-day rule. */
+    final private HashMap<LocalDate, Integer> journalCounts;
+
+    /** Meetings and events indexed by date and start time, for conflict lookups. */
+    final private TimedEntryIndex timedEntries;
+
+    /** Registry this calendar is registered in, or null if unregistered. */
+    CalendarRegistry registry;
+
+    /** Stable handle assigned by the registry, or -1 if unregistered. */
+    int handle;
+
+    /** Username of the account that owns the calendar, or null if it has no owner. */
+    String owner;
+
+    /**
+     * Count of changes to the entries, raised after each change while holding this
+     * calendar's lock. A copy of some entries taken at one version is still current
+     * while the version has not moved.
+     */
+    private volatile long version;
+
+    /** Whether the entries are in memory; false while they are only on disk. */
+    private boolean entriesLoaded;
+
+    /** Number of entries on disk while the entries are not loaded. */
+    private int unloadedEntryCount;
+
+    /** Earliest entry date on disk while the entries are not loaded, or null if none. */
+    private LocalDate unloadedFirstDate;
+
+    /** Latest entry date on disk while the entries are not loaded, or null if none. */
+    private LocalDate unloadedLastDate;
 
     
     /**
@@ -26,7 +79,15 @@ public class CalendarObject {
     public CalendarObject(String calendarName, boolean isPublic) {
         this.calendarName = calendarName;
         this.isPublic = isPublic;
-        this.entries = new ArrayList<>();
+        this.entries = new LinkedHashMap<>();
+        this.nextEntryId = 0;
+        this.entriesByDate = new TreeMap<>();
+        this.journalCounts = new HashMap<>();
+        this.timedEntries = new TimedEntryIndex();
+        this.registry = null;
+        this.handle = -1;
+        this.owner = null;
+        this.entriesLoaded = true;
     }
 
 
@@ -40,11 +101,56 @@ public class CalendarObject {
 
 
     /**
-     * Adds a new entry to the calendar.
+     * Adds a new entry to the calendar and assigns it an id.
      * @param entry The entry to add.
      */
     public void addEntry(Entry entry) {
-        entries.add(entry);
+        entry.setId(nextEntryId++);
+        entries.put(entry.getId(), entry);
+        indexEntry(entry);
+    }
+
+
+    /**
+     * Adds a batch of new entries to the calendar, assigning them ids in order.
+     * @param batch The entries to add.
+     */
+    public void addEntries(Collection<? extends Entry> batch) {
+        for (Entry entry : batch) {
+            entry.setId(nextEntryId++);
+            entries.put(entry.getId(), entry);
+            indexEntry(entry);
+        }
+    }
+
+
+    /**
+     * Adds an entry under an id it was given earlier, such as one saved to disk.
+     * Entries added later get ids after it.
+     * @param id    The id to give the entry.
+     * @param entry The entry to add.
+     * @return true if the entry was added, false if the id is already in use.
+     */
+    public boolean restoreEntry(long id, Entry entry) {
+        boolean restored = false;
+        if (id >= 0 && !entries.containsKey(id)) {
+            entry.setId(id);
+            entries.put(id, entry);
+            nextEntryId = Math.max(nextEntryId, id + 1);
+            indexEntry(entry);
+            restored = true;
+        }
+        return restored;
+    }
+
+
+    /**
+     * Returns the entry with the given id.
+     * @param id The id of the entry.
+     * @return The entry, or null if the calendar has no entry with that id.
+     */
+    public Entry getEntry(long id) {
+        return entries.get(id);
     }
 
 
@@ -54,10 +160,27 @@ public class CalendarObject {
      * @param newEntry The new entry to insert.
      */
     public void editEntry(Entry oldEntry, Entry newEntry) {
-        int index = entries.indexOf(oldEntry);
-        if (index != -1) {
-            entries.set(index, newEntry);
+        if (entries.get(oldEntry.getId()) == oldEntry) {
+            editEntry(oldEntry.getId(), newEntry);
+        }
+    }
+
+
+    /**
+     * Replaces the entry with the given id, keeping its id and position.
+     * @param id       The id of the entry to replace.
+     * @param newEntry The new entry to insert.
+     * @return true if an entry with that id existed and was replaced.
+     */
+    public boolean editEntry(long id, Entry newEntry) {
+        Entry oldEntry = entries.get(id);
+        if (oldEntry != null) {
+            newEntry.setId(id);
+            entries.put(id, newEntry);
+            unindexEntry(oldEntry);
+            indexEntry(newEntry);
         }
+        return oldEntry != null;
     }
 
 
@@ -66,34 +189,302 @@ public class CalendarObject {
      * @param entry The entry to remove.
      */
     public void removeEntry(Entry entry) {
-        entries.remove(entry);
+        if (entries.get(entry.getId()) == entry) {
+            removeEntry(entry.getId());
+        }
+    }
+
+
+    /**
+     * Removes the entry with the given id.
+     * @param id The id of the entry to remove.
+     * @return true if an entry with that id existed and was removed.
+     */
+    public boolean removeEntry(long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            unindexEntry(entry);
+        }
+        return entry != null;
+    }
+
+
+    /**
+     * Returns the entries scheduled on the given date, in display order.
+     * @param date The date to look up.
+     * @return A new list of entries on that date, empty if there are none.
+     */
+    public ArrayList<Entry> getEntriesForDate(LocalDate date) {
+        ArrayList<Entry> bucket = entriesByDate.get(date);
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+
+    /**
+     * Returns the entries scheduled between two dates, inclusive, ordered by date and
+     * then in display order within each date.
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return A new list of entries within the range, empty if there are none.
+     */
+    public ArrayList<Entry> getEntriesBetween(LocalDate from, LocalDate to) {
+        ArrayList<Entry> result = new ArrayList<>();
+        if (!from.isAfter(to)) {
+            for (ArrayList<Entry> bucket : entriesByDate.subMap(from, true, to, true).values()) {
+                result.addAll(bucket);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Checks whether the calendar already has a journal on the given date.
+     * @param date The date to check.
+     * @return true if a journal exists on that date.
+     */
+    public boolean hasJournalOn(LocalDate date) {
+        return journalCounts.containsKey(date);
+    }
+
+
+    /**
+     * Returns the meetings and events on a date whose time range overlaps the given one.
+     * @param date  The date to search.
+     * @param start The start of the range.
+     * @param end   The end of the range.
+     * @return A new list of overlapping entries ordered by start time, empty if there are none.
+     */
+    public ArrayList<Entry> getOverlappingEntries(LocalDate date, LocalTime start, LocalTime end) {
+        return timedEntries.findOverlapping(date, start, end);
+    }
+
+
+    /**
+     * Returns every entry of a month bucketed per day, with per-type counts, in one range lookup.
+     * @param yearMonth The month to aggregate.
+     * @return The month's entries grouped by day.
+     */
+    public MonthEntries getMonthEntries(YearMonth yearMonth) {
+        return MonthEntries.fromBuckets(yearMonth,
+                entriesByDate.subMap(yearMonth.atDay(1), true, yearMonth.atEndOfMonth(), true));
+    }
+
+
+    /**
+     * Returns every entry of a week bucketed per day, in one range lookup. The
+     * result is a copy, current while {@link #getVersion} is still its version.
+     * Safe to call off the event dispatch thread: the copy is taken under the
+     * same lock the entries are changed under.
+     * @param weekStart The first day of the week.
+     * @return The week's entries grouped by day.
+     */
+    public synchronized WeekEntries getWeekEntries(LocalDate weekStart) {
+        return WeekEntries.fromBuckets(weekStart, this.version,
+                entriesByDate.subMap(weekStart, true, weekStart.plusDays(6), true));
     }
 
 
     /**
-     * Sets the public/private visibility of the calendar.
+     * Returns the number of changes made to the entries so far.
+     * @return The entry version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+
+    /**
+     * Adds an entry to the bucket of its date, at its place in display order.
+     * @param entry The entry to index.
+     */
+    private synchronized void indexEntry(Entry entry) {
+        ArrayList<Entry> bucket = entriesByDate.computeIfAbsent(entry.getDate(), d -> new ArrayList<>());
+        bucket.add(insertionPoint(bucket, entry), entry);
+        if (entry instanceof Journal) {
+            journalCounts.merge(entry.getDate(), 1, Integer::sum);
+        }
+        timedEntries.add(entry);
+        version++;
+    }
+
+
+    /**
+     * Finds where an entry goes in a bucket kept in display order, after any entries
+     * that sort equal to it so same-time entries keep the order they were added in.
+     * @param bucket The bucket, in display order.
+     * @param entry  The entry to place.
+     * @return The index to insert the entry at.
+     */
+    private static int insertionPoint(ArrayList<Entry> bucket, Entry entry) {
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareDisplayOrder(bucket.get(mid), entry) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Compares two entries of the same date by display order: journals and tasks
+     * before meetings and events, which go by start time with missing times first.
+     * @param a The first entry.
+     * @param b The second entry.
+     * @return A negative number, zero or a positive number as {@code a} goes before, with or after {@code b}.
+     */
+    private static int compareDisplayOrder(Entry a, Entry b) {
+        if (!(a instanceof TimedEntry timedA)) {
+            return b instanceof TimedEntry ? -1 : 0;
+        }
+        if (!(b instanceof TimedEntry timedB)) {
+            return 1;
+        }
+        LocalTime startA = timedA.getStartTime();
+        LocalTime startB = timedB.getStartTime();
+        if (startA == null || startB == null) {
+            return startA == startB ? 0 : startA == null ? -1 : 1;
+        }
+        return startA.compareTo(startB);
+    }
+
+
+    /**
+     * Removes an entry from the bucket of its date, dropping the bucket once empty.
+     * @param entry The entry to unindex.
+     */
+    private synchronized void unindexEntry(Entry entry) {
+        ArrayList<Entry> bucket = entriesByDate.get(entry.getDate());
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                entriesByDate.remove(entry.getDate());
+            }
+        }
+        if (entry instanceof Journal) {
+            journalCounts.computeIfPresent(entry.getDate(), (d, count) -> count > 1 ? count - 1 : null);
+        }
+        timedEntries.remove(entry);
+        version++;
+    }
+
+
+    /**
+     * Checks whether the entries of the calendar are in memory.
+     * @return true if the entries are loaded, false if only the summary is.
+     */
+    public boolean isLoaded() {
+        return this.entriesLoaded;
+    }
+
+
+    /**
+     * Returns the number of entries in the calendar, whether or not they are loaded.
+     * @return The entry count.
+     */
+    public int getEntryCount() {
+        return this.entriesLoaded ? this.entries.size() : this.unloadedEntryCount;
+    }
+
+
+    /**
+     * Returns the date of the earliest entry, whether or not the entries are loaded.
+     * @return The earliest entry date, or null if the calendar has no entries.
+     */
+    public LocalDate getFirstEntryDate() {
+        if (!this.entriesLoaded) {
+            return this.unloadedFirstDate;
+        }
+        return entriesByDate.isEmpty() ? null : entriesByDate.firstKey();
+    }
+
+
+    /**
+     * Returns the date of the latest entry, whether or not the entries are loaded.
+     * @return The latest entry date, or null if the calendar has no entries.
+     */
+    public LocalDate getLastEntryDate() {
+        if (!this.entriesLoaded) {
+            return this.unloadedLastDate;
+        }
+        return entriesByDate.isEmpty() ? null : entriesByDate.lastKey();
+    }
+
+
+    /**
+     * Drops the entries from memory, keeping their count and date range. The
+     * entries must be saved on disk so they can be restored and marked loaded again.
+     */
+    public void unloadEntries() {
+        markUnloaded(getEntryCount(), getFirstEntryDate(), getLastEntryDate());
+    }
+
+
+    /**
+     * Marks the entries as on disk only, with the given summary, and drops any in memory.
+     * @param entryCount The number of entries on disk.
+     * @param firstDate  The earliest entry date, or null if none.
+     * @param lastDate   The latest entry date, or null if none.
+     */
+    public synchronized void markUnloaded(int entryCount, LocalDate firstDate, LocalDate lastDate) {
+        this.entries.clear();
+        this.entriesByDate.clear();
+        this.journalCounts.clear();
+        this.timedEntries.clear();
+        this.unloadedEntryCount = entryCount;
+        this.unloadedFirstDate = firstDate;
+        this.unloadedLastDate = lastDate;
+        this.entriesLoaded = false;
+        this.version++;
+    }
+
+
+    /**
+     * Marks the entries as loaded once they have been restored from disk.
+     */
+    public void markLoaded() {
+        this.entriesLoaded = true;
+        this.unloadedEntryCount = 0;
+        this.unloadedFirstDate = null;
+        this.unloadedLastDate = null;
+    }
+
+
+    /**
+     * Sets the public/private visibility of the calendar. Ignored if the calendar is
+     * registered and another calendar already uses its name with that visibility.
      * @param isPublic true to make the calendar public, false to make it private.
      */
     public void setIsPublic(boolean isPublic) {
-        this.isPublic = isPublic;
+        if (this.isPublic != isPublic && (registry == null || registry.rekey(this, calendarName, isPublic))) {
+            this.isPublic = isPublic;
+        }
     }
 
 
     /**
-     * Sets the name/title of the calendar.
+     * Sets the name/title of the calendar. Ignored if the calendar is registered and
+     * another calendar with the same visibility already uses that name.
      * @param title The new title for the calendar.
      */
     public void setTitle(String title) {
-        this.calendarName = title;
+        if (!this.calendarName.equals(title) && (registry == null || registry.rekey(this, title, isPublic))) {
+            this.calendarName = title;
+        }
     }
 
 
     /**
-     * Returns the list of entries in the calendar.
-     * @return A list of Entry objects.
+     * Returns the entries in the calendar in insertion order.
+     * @return A read-only view of the Entry objects.
      */
-    public ArrayList<Entry> getEntries() {
-        return this.entries;
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(this.entries.values());
     }
 
 
@@ -106,6 +497,24 @@ public class CalendarObject {
     }
 
 
+    /**
+     * Returns the stable handle assigned when the calendar was registered.
+     * @return The handle, or -1 if the calendar is not registered.
+     */
+    public int getHandle() {
+        return this.handle;
+    }
+
+
+    /**
+     * Returns the username of the account that owns the calendar.
+     * @return The owner's username, or null if the calendar has no owner.
+     */
+    public String getOwner() {
+        return this.owner;
+    }
+
+
     /**
      * Checks whether the calendar is public.
      * @return true if the calendar is public, false otherwise.
@@ -121,7 +530,7 @@ public class CalendarObject {
      */
     public CalendarObject copy() {
         CalendarObject copiedCalendar = new CalendarObject(this.calendarName, this.isPublic);
-        for (Entry entry : this.entries) {
+        for (Entry entry : this.entries.values()) {
             copiedCalendar.addEntry(entry.copy());
         }
         return copiedCalendar;
@@ -0,0 +1,343 @@
+package com.hallareandrebollos.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Keeps every calendar in the system, indexed by a stable handle and by its
+ * name and visibility. Public calendar names are unique among public calendars
+ * and private names among private calendars, so a (name, visibility) pair
+ * identifies at most one calendar. Handles never change or get reused, so they
+ * stay valid when other calendars are removed. Calendars registered with an
+ * owner are also indexed by that owner's username, and public calendars are
+ * kept in a list sorted by name so the public directory can be paged without
+ * filtering every calendar.
+ */
+public class CalendarRegistry {
+
+    /** Handle given to the next registered calendar. */
+    private int nextHandle;
+
+    /** All registered calendars by handle, in registration order. */
+    private final LinkedHashMap<Integer, CalendarObject> calendarsByHandle;
+
+    /** Public calendars keyed by name. */
+    private final HashMap<String, CalendarObject> publicByName;
+
+    /** Private calendars keyed by name. */
+    private final HashMap<String, CalendarObject> privateByName;
+
+    /** Calendars of each owner, keyed by username, in registration order. */
+    private final HashMap<String, LinkedHashSet<CalendarObject>> calendarsByOwner;
+
+    /** Public calendars sorted by name, maintained on every registration and re-key. */
+    private final ArrayList<CalendarObject> publicSorted;
+
+
+    /**
+     * Constructs an empty registry.
+     */
+    public CalendarRegistry() {
+        this.nextHandle = 0;
+        this.calendarsByHandle = new LinkedHashMap<>();
+        this.publicByName = new HashMap<>();
+        this.privateByName = new HashMap<>();
+        this.calendarsByOwner = new HashMap<>();
+        this.publicSorted = new ArrayList<>();
+    }
+
+
+    /**
+     * Registers a calendar and assigns it a handle.
+     * @param calendar The calendar to register.
+     * @return The new handle, or -1 if the calendar is already registered somewhere
+     *         or its name and visibility are taken.
+     */
+    public int register(CalendarObject calendar) {
+        return register(calendar, null);
+    }
+
+
+    /**
+     * Registers a calendar under an owner and assigns it a handle.
+     * @param calendar The calendar to register.
+     * @param owner    The username of the owning account, or null for none.
+     * @return The new handle, or -1 if the calendar is already registered somewhere
+     *         or its name and visibility are taken.
+     */
+    public int register(CalendarObject calendar, String owner) {
+        int handle = -1;
+        if (calendar.registry == null && !contains(calendar.getCalendarName(), calendar.isPublic())) {
+            handle = this.nextHandle++;
+            add(calendar, owner, handle);
+        }
+        return handle;
+    }
+
+
+    /**
+     * Registers a calendar under a handle it was given earlier, such as one saved
+     * to disk. Later registrations get handles after it.
+     * @param calendar The calendar to register.
+     * @param owner    The username of the owning account, or null for none.
+     * @param handle   The handle to give the calendar.
+     * @return true if the calendar was registered; false if it is already registered
+     *         somewhere, or the handle or its name and visibility are taken.
+     */
+    public boolean restore(CalendarObject calendar, String owner, int handle) {
+        boolean restored = false;
+        if (calendar.registry == null && handle >= 0 && !this.calendarsByHandle.containsKey(handle)
+                && !contains(calendar.getCalendarName(), calendar.isPublic())) {
+            this.nextHandle = Math.max(this.nextHandle, handle + 1);
+            add(calendar, owner, handle);
+            restored = true;
+        }
+        return restored;
+    }
+
+
+    /**
+     * Adds a calendar to every index under the given handle.
+     * @param calendar The calendar to add.
+     * @param owner    The username of the owning account, or null for none.
+     * @param handle   The handle to give the calendar.
+     */
+    private void add(CalendarObject calendar, String owner, int handle) {
+        calendar.registry = this;
+        calendar.handle = handle;
+        this.calendarsByHandle.put(handle, calendar);
+        namesFor(calendar.isPublic()).put(calendar.getCalendarName(), calendar);
+        if (calendar.isPublic()) {
+            insertPublic(calendar.getCalendarName(), calendar);
+        }
+        if (owner != null) {
+            calendar.owner = owner;
+            this.calendarsByOwner.computeIfAbsent(owner, o -> new LinkedHashSet<>()).add(calendar);
+        }
+    }
+
+
+    /**
+     * Removes a calendar from the registry. Its handle is not reused.
+     * @param calendar The calendar to remove.
+     * @return true if the calendar was registered here and has been removed.
+     */
+    public boolean remove(CalendarObject calendar) {
+        boolean removed = false;
+        if (calendar.registry == this) {
+            this.calendarsByHandle.remove(calendar.handle);
+            namesFor(calendar.isPublic()).remove(calendar.getCalendarName());
+            if (calendar.isPublic()) {
+                removePublic(calendar.getCalendarName());
+            }
+            if (calendar.owner != null) {
+                LinkedHashSet<CalendarObject> owned = this.calendarsByOwner.get(calendar.owner);
+                if (owned != null) {
+                    owned.remove(calendar);
+                    if (owned.isEmpty()) {
+                        this.calendarsByOwner.remove(calendar.owner);
+                    }
+                }
+            }
+            calendar.registry = null;
+            calendar.handle = -1;
+            removed = true;
+        }
+        return removed;
+    }
+
+
+    /**
+     * Returns the calendar with the given handle.
+     * @param handle The handle to look up.
+     * @return The calendar, or null if no calendar has that handle.
+     */
+    public CalendarObject get(int handle) {
+        return this.calendarsByHandle.get(handle);
+    }
+
+
+    /**
+     * Returns the calendar with the given name and visibility.
+     * @param calendarName The name to look up.
+     * @param isPublic     Whether to look among public or private calendars.
+     * @return The calendar, or null if none matches.
+     */
+    public CalendarObject find(String calendarName, boolean isPublic) {
+        return namesFor(isPublic).get(calendarName);
+    }
+
+
+    /**
+     * Checks whether a calendar with the given name and visibility exists.
+     * @param calendarName The name to check.
+     * @param isPublic     Whether to check among public or private calendars.
+     * @return true if the name is taken for that visibility.
+     */
+    public boolean contains(String calendarName, boolean isPublic) {
+        return namesFor(isPublic).containsKey(calendarName);
+    }
+
+
+    /**
+     * Returns all public calendars sorted by name.
+     * @return A read-only view of the public calendars, kept up to date by the registry.
+     */
+    public List<CalendarObject> getPublicCalendars() {
+        return Collections.unmodifiableList(this.publicSorted);
+    }
+
+
+    /**
+     * Returns one page of the public calendars sorted by name.
+     * @param offset Position of the first calendar of the page.
+     * @param limit  Maximum number of calendars in the page.
+     * @return A read-only view of the page, empty if the offset is past the end.
+     */
+    public List<CalendarObject> getPublicCalendarPage(int offset, int limit) {
+        int from = Math.max(0, Math.min(offset, this.publicSorted.size()));
+        int to = Math.max(from, Math.min(from + Math.max(0, limit), this.publicSorted.size()));
+        return Collections.unmodifiableList(this.publicSorted.subList(from, to));
+    }
+
+
+    /**
+     * Returns the number of public calendars.
+     * @return The public calendar count.
+     */
+    public int getPublicCount() {
+        return this.publicSorted.size();
+    }
+
+
+    /**
+     * Returns the calendars registered under an owner.
+     * @param owner The username of the owner.
+     * @return A read-only view of the owner's calendars in registration order, empty if none.
+     */
+    public Set<CalendarObject> getCalendarsOwnedBy(String owner) {
+        LinkedHashSet<CalendarObject> owned = this.calendarsByOwner.get(owner);
+        return owned != null ? Collections.unmodifiableSet(owned) : Collections.emptySet();
+    }
+
+
+    /**
+     * Drops an owner from the owner index. The owner's calendars stay registered
+     * but are no longer listed as belonging to anyone.
+     * @param owner The username of the owner to drop.
+     */
+    public void releaseOwner(String owner) {
+        this.calendarsByOwner.remove(owner);
+    }
+
+
+    /**
+     * Returns all registered calendars in registration order.
+     * @return A read-only view of the calendars.
+     */
+    public Collection<CalendarObject> getCalendars() {
+        return Collections.unmodifiableCollection(this.calendarsByHandle.values());
+    }
+
+
+    /**
+     * Returns the number of registered calendars.
+     * @return The calendar count.
+     */
+    public int size() {
+        return this.calendarsByHandle.size();
+    }
+
+
+    /**
+     * Moves a registered calendar to a new name and visibility key. Called by
+     * {@link CalendarObject} before it changes its name or visibility.
+     * @param calendar The calendar being changed.
+     * @param newName  The name it will have.
+     * @param isPublic The visibility it will have.
+     * @return true if the key was free and the calendar has been re-keyed.
+     */
+    boolean rekey(CalendarObject calendar, String newName, boolean isPublic) {
+        boolean rekeyed = false;
+        if (!contains(newName, isPublic)) {
+            namesFor(calendar.isPublic()).remove(calendar.getCalendarName());
+            namesFor(isPublic).put(newName, calendar);
+            if (calendar.isPublic()) {
+                removePublic(calendar.getCalendarName());
+            }
+            if (isPublic) {
+                insertPublic(newName, calendar);
+            }
+            rekeyed = true;
+        }
+        return rekeyed;
+    }
+
+
+    /**
+     * Inserts a public calendar into the sorted public list.
+     * @param calendarName The name to sort the calendar under.
+     * @param calendar     The calendar to insert.
+     */
+    private void insertPublic(String calendarName, CalendarObject calendar) {
+        int position = findPublic(calendarName);
+        this.publicSorted.add(position < 0 ? -(position + 1) : position, calendar);
+    }
+
+
+    /**
+     * Removes a public calendar from the sorted public list.
+     * @param calendarName The name the calendar is sorted under.
+     */
+    private void removePublic(String calendarName) {
+        int position = findPublic(calendarName);
+        if (position >= 0) {
+            this.publicSorted.remove(position);
+        }
+    }
+
+
+    /**
+     * Binary searches the sorted public list for a name. Names are ordered
+     * case-insensitively, with case-sensitive order breaking ties.
+     * @param calendarName The name to search for.
+     * @return The position of the name, or (-(insertion point) - 1) if absent.
+     */
+    private int findPublic(String calendarName) {
+        int low = 0;
+        int high = this.publicSorted.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            String midName = this.publicSorted.get(mid).getCalendarName();
+            int cmp = String.CASE_INSENSITIVE_ORDER.compare(midName, calendarName);
+            if (cmp == 0) {
+                cmp = midName.compareTo(calendarName);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    /**
+     * Returns the name index for a visibility.
+     * @param isPublic Whether to return the public or private index.
+     * @return The name index.
+     */
+    private HashMap<String, CalendarObject> namesFor(boolean isPublic) {
+        return isPublic ? this.publicByName : this.privateByName;
+    }
+}
@@ -18,6 +18,9 @@ public abstract class Entry {
     /** Date of the calendar entry. */
     protected LocalDate date;
 
+    /** Identifier assigned by the calendar holding this entry, or -1 if not in a calendar. */
+    private long id = -1;
+
 
     /**
      * Constructs a new Entry with the specified title and date.
@@ -73,6 +76,25 @@ public abstract class Entry {
     }
 
 
+    /**
+     * Gets the identifier assigned by the calendar holding this entry.
+     * The identifier stays the same when the entry is edited in place.
+     * @return The entry id, or -1 if the entry is not in a calendar.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+
+    /**
+     * Sets the identifier of this entry. Only calendars assign identifiers.
+     * @param id The entry id.
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+
+
     /**
      * Returns the type of this entry (e.g., "Task", "Event", "Journal", "Meeting").
      * @return The type of the entry.
@@ -8,7 +8,7 @@ import java.time.LocalTime;
  * Represents an event-type calendar entry with a venue, organizer, 
  * and specific start and end times.
  */
-public class Event extends Entry {
+public class Event extends Entry implements TimedEntry {
 
     /** Location where the event will take place. */
     final private String venue;
@@ -30,4 +30,13 @@ public class FamilyCalendar extends CalendarObject {
     public boolean isPasscodeCorrect(int inputPasscode) {
         return this.passcode == inputPasscode;
     }
+
+
+    /**
+     * Returns the passcode of the calendar, for saving it to disk.
+     * @return The passcode.
+     */
+    public int getPasscode() {
+        return this.passcode;
+    }
 }
@@ -9,7 +9,7 @@ import java.time.LocalTime;
  * A meeting includes a title, date, time range, modality (e.g., online or in-person),
  * and optional venue and link.
  */
-public class Meeting extends Entry {
+public class Meeting extends Entry implements TimedEntry {
 
     /** Required modality of the meeting (e.g., "Online", "In-Person"). */
     final private String modality;  
@@ -0,0 +1,137 @@
+package com.hallareandrebollos.models;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Holds every entry of a single month bucketed per day, together with the
+ * per-type counts of each day. Built in one pass over a calendar's date index
+ * so the month grid does not have to query each day separately.
+ */
+public class MonthEntries {
+
+    /** Entry types in the order used by the per-type counts. */
+    public static final String[] TYPES = {"Event", "Meeting", "Task", "Journal"};
+
+    /** The month these entries belong to. */
+    private final YearMonth yearMonth;
+
+    /** Entries of each day, indexed by day of month minus one. */
+    private final ArrayList<ArrayList<Entry>> days;
+
+    /** Per-type counts of each day, indexed by day of month minus one, then by {@link #TYPES}. */
+    private final int[][] typeCounts;
+
+
+    /**
+     * Constructs an empty MonthEntries for the given month.
+     * @param yearMonth The month to hold entries for.
+     */
+    public MonthEntries(YearMonth yearMonth) {
+        this.yearMonth = yearMonth;
+        int length = yearMonth.lengthOfMonth();
+        this.days = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            this.days.add(new ArrayList<>());
+        }
+        this.typeCounts = new int[length][TYPES.length];
+    }
+
+
+    /**
+     * Builds the month aggregate from a range of date buckets.
+     * @param yearMonth The month to aggregate.
+     * @param buckets   Date buckets covering the month, as returned by the calendar's date index.
+     * @return The populated MonthEntries.
+     */
+    public static MonthEntries fromBuckets(YearMonth yearMonth, Map<LocalDate, ? extends List<Entry>> buckets) {
+        MonthEntries month = new MonthEntries(yearMonth);
+        for (Map.Entry<LocalDate, ? extends List<Entry>> bucket : buckets.entrySet()) {
+            int dayIdx = bucket.getKey().getDayOfMonth() - 1;
+            month.days.get(dayIdx).addAll(bucket.getValue());
+            for (Entry entry : bucket.getValue()) {
+                int typeIdx = typeIndex(entry);
+                if (typeIdx >= 0) {
+                    month.typeCounts[dayIdx][typeIdx]++;
+                }
+            }
+        }
+        return month;
+    }
+
+
+    /**
+     * Counts the given entries by type.
+     * @param entries The entries to count.
+     * @return An array of counts in {@link #TYPES} order.
+     */
+    public static int[] countTypes(List<Entry> entries) {
+        int[] counts = new int[TYPES.length];
+        for (Entry entry : entries) {
+            int typeIdx = typeIndex(entry);
+            if (typeIdx >= 0) {
+                counts[typeIdx]++;
+            }
+        }
+        return counts;
+    }
+
+
+    /**
+     * Returns the position of an entry's type in {@link #TYPES}.
+     * @param entry The entry to classify.
+     * @return The type index, or -1 for unknown types.
+     */
+    public static int typeIndex(Entry entry) {
+        switch (entry.getType()) {
+            case "Event": return 0;
+            case "Meeting": return 1;
+            case "Task": return 2;
+            case "Journal": return 3;
+            default: return -1;
+        }
+    }
+
+
+    /**
+     * Returns the month these entries belong to.
+     * @return The year and month.
+     */
+    public YearMonth getYearMonth() {
+        return this.yearMonth;
+    }
+
+
+    /**
+     * Returns the entries of a day in this month.
+     * @param day The day of the month (1-based).
+     * @return The entries of that day, empty if there are none.
+     */
+    public List<Entry> getEntriesForDay(int day) {
+        return this.days.get(day - 1);
+    }
+
+
+    /**
+     * Returns the per-type counts of a day in this month.
+     * @param day The day of the month (1-based).
+     * @return The counts in {@link #TYPES} order.
+     */
+    public int[] getTypeCounts(int day) {
+        return this.typeCounts[day - 1];
+    }
+
+
+    /**
+     * Returns the number of entries on a day in this month.
+     * @param day The day of the month (1-based).
+     * @return The entry count of that day.
+     */
+    public int getEntryCount(int day) {
+        return this.days.get(day - 1).size();
+    }
+}
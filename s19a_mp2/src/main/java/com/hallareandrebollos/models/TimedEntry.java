@@ -0,0 +1,24 @@
+package com.hallareandrebollos.models;
+
+import java.time.LocalTime;
+
+
+/**
+ * Implemented by calendar entries that occupy a time range within their date,
+ * such as meetings and events.
+ */
+public interface TimedEntry {
+
+    /**
+     * Returns the start time of the entry.
+     * @return The start time, or null if none was given.
+     */
+    LocalTime getStartTime();
+
+
+    /**
+     * Returns the end time of the entry.
+     * @return The end time, or null if none was given.
+     */
+    LocalTime getEndTime();
+}
@@ -0,0 +1,180 @@
+package com.hallareandrebollos.models;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+/**
+ * Indexes the timed entries (meetings and events) of a calendar by date and
+ * start time so overlap queries do not have to scan every entry.
+ *
+ * Each day keeps its timed entries sorted by start time along with the longest
+ * duration on that day. An entry starting more than that duration before a
+ * queried range cannot reach it, so a query only sweeps the entries starting
+ * inside [range start - longest duration, range end].
+ *
+ * Entries without a start time are not indexed. An end time before the start
+ * time is treated as ending at the start time.
+ */
+public class TimedEntryIndex {
+
+    /** Timed entries of each day that has any. */
+    private final HashMap<LocalDate, DaySchedule> days;
+
+
+    /**
+     * Constructs an empty index.
+     */
+    public TimedEntryIndex() {
+        this.days = new HashMap<>();
+    }
+
+
+    /**
+     * Adds an entry to the index if it is a timed entry with a start time.
+     * @param entry The entry to add.
+     */
+    public void add(Entry entry) {
+        if (entry instanceof TimedEntry timed && timed.getStartTime() != null) {
+            days.computeIfAbsent(entry.getDate(), d -> new DaySchedule()).add(entry);
+        }
+    }
+
+
+    /**
+     * Removes an entry from the index.
+     * @param entry The entry to remove.
+     */
+    public void remove(Entry entry) {
+        if (entry instanceof TimedEntry timed && timed.getStartTime() != null) {
+            DaySchedule schedule = days.get(entry.getDate());
+            if (schedule != null) {
+                schedule.remove(entry);
+                if (schedule.entries.isEmpty()) {
+                    days.remove(entry.getDate());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Removes every entry from the index.
+     */
+    public void clear() {
+        days.clear();
+    }
+
+
+    /**
+     * Returns the timed entries on a date whose time range overlaps the given one.
+     * Two ranges overlap if each starts before the other ends, or if they start
+     * at the same time.
+     * @param date  The date to search.
+     * @param start The start of the range.
+     * @param end   The end of the range.
+     * @return The overlapping entries ordered by start time, empty if there are none.
+     */
+    public ArrayList<Entry> findOverlapping(LocalDate date, LocalTime start, LocalTime end) {
+        ArrayList<Entry> result = new ArrayList<>();
+        DaySchedule schedule = days.get(date);
+        if (schedule != null) {
+            int queryStart = start.toSecondOfDay();
+            int queryEnd = Math.max(queryStart, end.toSecondOfDay());
+            int from = schedule.firstStartingAtOrAfter(queryStart - schedule.longestDuration);
+            for (int i = from; i < schedule.entries.size(); i++) {
+                Entry entry = schedule.entries.get(i);
+                int entryStart = startOf(entry);
+                if (entryStart > queryEnd) {
+                    break;
+                }
+                int entryEnd = endOf(entry);
+                if ((entryStart < queryEnd && entryEnd > queryStart) || entryStart == queryStart) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the start of a timed entry in seconds of the day.
+     * @param entry The timed entry.
+     * @return The start time in seconds.
+     */
+    private static int startOf(Entry entry) {
+        return ((TimedEntry) entry).getStartTime().toSecondOfDay();
+    }
+
+
+    /**
+     * Returns the end of a timed entry in seconds of the day, never before its start.
+     * @param entry The timed entry.
+     * @return The end time in seconds.
+     */
+    private static int endOf(Entry entry) {
+        LocalTime end = ((TimedEntry) entry).getEndTime();
+        return end != null ? Math.max(startOf(entry), end.toSecondOfDay()) : startOf(entry);
+    }
+
+
+    /**
+     * The timed entries of a single day, sorted by start time.
+     */
+    private static class DaySchedule {
+
+        /** Timed entries sorted by start time; equal starts keep insertion order. */
+        private final ArrayList<Entry> entries = new ArrayList<>();
+
+        /** Longest duration in seconds of any entry added since the day was created. */
+        private int longestDuration = 0;
+
+
+        /**
+         * Inserts an entry after all entries starting at or before it.
+         * @param entry The entry to insert.
+         */
+        private void add(Entry entry) {
+            entries.add(firstStartingAtOrAfter(startOf(entry) + 1), entry);
+            longestDuration = Math.max(longestDuration, endOf(entry) - startOf(entry));
+        }
+
+
+        /**
+         * Removes an entry by identity. The longest duration is kept as an upper bound.
+         * @param entry The entry to remove.
+         */
+        private void remove(Entry entry) {
+            int start = startOf(entry);
+            for (int i = firstStartingAtOrAfter(start); i < entries.size() && startOf(entries.get(i)) == start; i++) {
+                if (entries.get(i) == entry) {
+                    entries.remove(i);
+                    return;
+                }
+            }
+        }
+
+
+        /**
+         * Binary searches for the first entry starting at or after a time.
+         * @param seconds The time in seconds of the day.
+         * @return The position of that entry, or the size of the list if there is none.
+         */
+        private int firstStartingAtOrAfter(int seconds) {
+            int low = 0;
+            int high = entries.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startOf(entries.get(mid)) < seconds) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
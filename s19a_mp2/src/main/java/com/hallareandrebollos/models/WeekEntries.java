@@ -0,0 +1,87 @@
+package com.hallareandrebollos.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Holds every entry of a single week bucketed per day, as read from a calendar
+ * at a given version. The weekly view keeps these for the weeks around the one
+ * shown, and uses one only while the calendar is still at the same version.
+ */
+public class WeekEntries {
+
+    /** First day of the week. */
+    private final LocalDate weekStart;
+
+    /** Version of the calendar the entries were read at, or -1 if not read from a calendar. */
+    private final long version;
+
+    /** Entries of each day, indexed by days since the start of the week. */
+    private final ArrayList<ArrayList<Entry>> days;
+
+
+    /**
+     * Constructs an empty WeekEntries for the week starting on the given day.
+     * @param weekStart The first day of the week.
+     * @param version   The version of the calendar the entries are read at, or -1 if none.
+     */
+    public WeekEntries(LocalDate weekStart, long version) {
+        this.weekStart = weekStart;
+        this.version = version;
+        this.days = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            this.days.add(new ArrayList<>());
+        }
+    }
+
+
+    /**
+     * Builds the week from a range of date buckets.
+     * @param weekStart The first day of the week.
+     * @param version   The version of the calendar the buckets are read at.
+     * @param buckets   Date buckets covering the week, as returned by the calendar's date index.
+     * @return The populated WeekEntries.
+     */
+    public static WeekEntries fromBuckets(LocalDate weekStart, long version,
+                                          Map<LocalDate, ? extends List<Entry>> buckets) {
+        WeekEntries week = new WeekEntries(weekStart, version);
+        for (Map.Entry<LocalDate, ? extends List<Entry>> bucket : buckets.entrySet()) {
+            int dayIdx = (int) (bucket.getKey().toEpochDay() - weekStart.toEpochDay());
+            if (dayIdx >= 0 && dayIdx < 7) {
+                week.days.get(dayIdx).addAll(bucket.getValue());
+            }
+        }
+        return week;
+    }
+
+
+    /**
+     * Returns the first day of the week.
+     * @return The week start.
+     */
+    public LocalDate getWeekStart() {
+        return this.weekStart;
+    }
+
+
+    /**
+     * Returns the version of the calendar the entries were read at.
+     * @return The calendar version, or -1 if not read from a calendar.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+
+    /**
+     * Returns the entries of a day in this week.
+     * @param dayIdx Days since the start of the week, 0 to 6.
+     * @return The entries of that day, empty if there are none.
+     */
+    public List<Entry> getEntriesForDay(int dayIdx) {
+        return this.days.get(dayIdx);
+    }
+}
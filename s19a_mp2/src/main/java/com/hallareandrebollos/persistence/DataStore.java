@@ -0,0 +1,778 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.hallareandrebollos.models.Account;
+import com.hallareandrebollos.models.CalendarObject;
+import com.hallareandrebollos.models.CalendarRegistry;
+import com.hallareandrebollos.models.Entry;
+
+
+/**
+ * Saves accounts, calendars and entries to disk. Every change is encoded as a
+ * record when it is reported and appended to a mutation log by a background
+ * {@link WriteBehindQueue}, so reporting a change never waits for the disk. When
+ * the store is loaded or closed and the log has outgrown the snapshot, the whole
+ * state is written to a new snapshot, after which the log starts over. Loading
+ * reads the snapshot and then replays the log, so startup time depends on the
+ * size of the data rather than on how many changes were ever made.
+ *
+ * Only calendar metadata is loaded at startup. A calendar's entries are decoded
+ * from the snapshot the first time {@link #ensureLoaded} is called for it, and the
+ * least recently used calendars are unloaded again once the loaded entries exceed
+ * the entry budget. Only calendars whose entries are unchanged since the snapshot
+ * are unloaded, since the snapshot is where they are reloaded from.
+ *
+ * Each snapshot is written to a new file named after its generation, so the file
+ * being read from is never replaced while it is mapped.
+ *
+ * If the saved data cannot be loaded the store disables itself, leaving the files
+ * untouched, and the application runs without saving.
+ */
+public class DataStore {
+
+    /** Directory the application saves its data in by default. */
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data");
+
+    /** Number of loaded entries above which idle calendars are unloaded, by default. */
+    public static final long DEFAULT_ENTRY_BUDGET = 250_000;
+
+    /** Number of queued records and calendar batches above which reporting a change waits. */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    /** Log size in bytes below which the log is never compacted. */
+    private static final long MIN_COMPACT_SIZE = 1024 * 1024;
+
+    /** File name prefix of snapshots, followed by the generation. */
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    /** File name suffix of snapshots. */
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    /** Record type: an account was created. */
+    private static final byte ACCOUNT_ADDED = 1;
+
+    /** Record type: an account's password was changed. */
+    private static final byte PASSWORD_CHANGED = 2;
+
+    /** Record type: an account was deactivated. */
+    private static final byte ACCOUNT_DEACTIVATED = 3;
+
+    /** Record type: a calendar was registered. */
+    private static final byte CALENDAR_ADDED = 4;
+
+    /** Record type: a calendar was removed. */
+    private static final byte CALENDAR_REMOVED = 5;
+
+    /** Record type: a calendar's visibility was changed. */
+    private static final byte VISIBILITY_CHANGED = 6;
+
+    /** Record type: a calendar name was added to an account's owned list. */
+    private static final byte CALENDAR_OWNED = 7;
+
+    /** Record type: a calendar name was removed from an account's owned list. */
+    private static final byte CALENDAR_DISOWNED = 8;
+
+    /** Record type: an entry was added to a calendar. */
+    private static final byte ENTRY_ADDED = 9;
+
+    /** Record type: an entry of a calendar was replaced. */
+    private static final byte ENTRY_EDITED = 10;
+
+    /** Record type: an entry was removed from a calendar. */
+    private static final byte ENTRY_REMOVED = 11;
+
+    /** The directory holding the snapshot and log files. */
+    private final Path directory;
+
+    /** The mutation log file. */
+    private final Path logFile;
+
+    /** Accounts being saved, as loaded into by {@link #load}. */
+    private ArrayList<Account> accounts;
+
+    /** Loaded accounts keyed by username, for replaying records. */
+    private HashMap<String, Account> accountsByUsername;
+
+    /** Calendars being saved, as loaded into by {@link #load}. */
+    private CalendarRegistry registry;
+
+    /** The open mutation log, or null if the store is not loaded or disabled. */
+    private MutationLog log;
+
+    /** Appends records to the log in the background, or null if the store never loaded. Kept after closing for its statistics. */
+    private WriteBehindQueue queue;
+
+    /** The current snapshot, or null if the store is not loaded. */
+    private Snapshot snapshot;
+
+    /** Size in bytes of the current snapshot. */
+    private long snapshotSize;
+
+    /** Handles of calendars whose entries changed since the snapshot. */
+    private final HashSet<Integer> dirtyHandles;
+
+    /** Loaded calendars by handle, least recently used first. */
+    private final LinkedHashMap<Integer, CalendarObject> loadedCalendars;
+
+    /** Number of loaded entries above which idle calendars are unloaded. */
+    private final long entryBudget;
+
+
+    /**
+     * Constructs a store that saves into the given directory with the default entry budget.
+     * @param directory The directory holding the snapshot and log files.
+     */
+    public DataStore(Path directory) {
+        this(directory, DEFAULT_ENTRY_BUDGET);
+    }
+
+
+    /**
+     * Constructs a store that saves into the given directory.
+     * @param directory   The directory holding the snapshot and log files.
+     * @param entryBudget Number of loaded entries above which idle calendars are unloaded.
+     */
+    public DataStore(Path directory, long entryBudget) {
+        this.directory = directory;
+        this.logFile = directory.resolve("mutations.log");
+        this.accountsByUsername = new HashMap<>();
+        this.dirtyHandles = new HashSet<>();
+        this.loadedCalendars = new LinkedHashMap<>(16, 0.75f, true);
+        this.entryBudget = entryBudget;
+    }
+
+
+    /**
+     * Loads the saved data into an empty account list and registry, then keeps
+     * saving their changes as they are reported. Prints a message and disables
+     * the store if the data cannot be loaded.
+     * @param accounts The account list to fill.
+     * @param registry The registry to fill.
+     */
+    public void load(ArrayList<Account> accounts, CalendarRegistry registry) {
+        this.accounts = accounts;
+        this.registry = registry;
+        try {
+            Files.createDirectories(this.directory);
+            Path snapshotFile = findLatestSnapshot();
+            this.snapshot = Snapshot.open(snapshotFile);
+            this.snapshot.restore(accounts, registry);
+            this.snapshotSize = snapshotFile != null ? Files.size(snapshotFile) : 0;
+            for (Account account : accounts) {
+                this.accountsByUsername.put(account.getUsername(), account);
+                if (!account.getIsActive()) {
+                    registry.releaseOwner(account.getUsername());
+                }
+            }
+            this.log = MutationLog.open(this.logFile, this.snapshot.getGeneration(), this::apply);
+            compactIfNeeded();
+            deleteOldSnapshots();
+            this.queue = new WriteBehindQueue(this.log, DataStore::mergeEntryRecords, QUEUE_CAPACITY);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not load saved data, changes will not be saved: " + e.getMessage());
+            this.log = null;
+        }
+    }
+
+
+    /**
+     * Loads the entries of a calendar from the snapshot if they are not in memory,
+     * then unloads the least recently used calendars while the loaded entries exceed
+     * the entry budget. The given calendar is never unloaded by this call.
+     * @param calendar The calendar about to be used.
+     */
+    public void ensureLoaded(CalendarObject calendar) {
+        if (!calendar.isLoaded() && this.snapshot != null) {
+            try {
+                this.snapshot.loadEntries(calendar);
+            } catch (IOException e) {
+                System.out.println("Could not load calendar entries: " + e.getMessage());
+            }
+        }
+        if (calendar.isLoaded() && calendar.getHandle() >= 0) {
+            this.loadedCalendars.put(calendar.getHandle(), calendar);
+            unloadIdleCalendars(calendar);
+        }
+    }
+
+
+    /**
+     * Records a new account.
+     * @param account The account that was added.
+     */
+    public void accountAdded(Account account) {
+        try {
+            Record record = new Record(ACCOUNT_ADDED);
+            StorageCodec.writeAccount(record.out, account);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records a password change.
+     * @param username    The username of the account.
+     * @param newPassword The new password.
+     */
+    public void passwordChanged(String username, String newPassword) {
+        try {
+            Record record = new Record(PASSWORD_CHANGED);
+            StorageCodec.writeString(record.out, username);
+            StorageCodec.writeString(record.out, newPassword);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records the deactivation of an account.
+     * @param username The username of the account.
+     */
+    public void accountDeactivated(String username) {
+        try {
+            Record record = new Record(ACCOUNT_DEACTIVATED);
+            StorageCodec.writeString(record.out, username);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records a newly registered calendar.
+     * @param calendar The calendar that was registered.
+     */
+    public void calendarAdded(CalendarObject calendar) {
+        try {
+            Record record = new Record(CALENDAR_ADDED);
+            StorageCodec.writeCalendarHeader(record.out, calendar);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records the removal of a calendar.
+     * @param handle The handle the calendar had before it was removed.
+     */
+    public void calendarRemoved(int handle) {
+        if (this.log != null) {
+            this.queue.closeBatch(handle);
+        }
+        try {
+            Record record = new Record(CALENDAR_REMOVED);
+            record.out.writeInt(handle);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records a change of a calendar's visibility.
+     * @param calendar The calendar, with its new visibility.
+     */
+    public void visibilityChanged(CalendarObject calendar) {
+        try {
+            Record record = new Record(VISIBILITY_CHANGED);
+            record.out.writeInt(calendar.getHandle());
+            record.out.writeBoolean(calendar.isPublic());
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records a calendar name added to an account's owned calendars.
+     * @param username     The username of the account.
+     * @param calendarName The calendar name.
+     */
+    public void calendarOwned(String username, String calendarName) {
+        try {
+            Record record = new Record(CALENDAR_OWNED);
+            StorageCodec.writeString(record.out, username);
+            StorageCodec.writeString(record.out, calendarName);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records a calendar name removed from an account's owned calendars.
+     * @param username     The username of the account.
+     * @param calendarName The calendar name.
+     */
+    public void calendarDisowned(String username, String calendarName) {
+        try {
+            Record record = new Record(CALENDAR_DISOWNED);
+            StorageCodec.writeString(record.out, username);
+            StorageCodec.writeString(record.out, calendarName);
+            append(record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Records an entry added to a calendar.
+     * @param calendar The calendar the entry was added to.
+     * @param entry    The entry, with its assigned id.
+     */
+    public void entryAdded(CalendarObject calendar, Entry entry) {
+        writeEntryRecord(ENTRY_ADDED, calendar, entry);
+    }
+
+
+    /**
+     * Records a batch of entries added to a calendar.
+     * @param calendar The calendar the entries were added to.
+     * @param batch    The entries, with their assigned ids.
+     */
+    public void entriesAdded(CalendarObject calendar, Collection<? extends Entry> batch) {
+        for (Entry entry : batch) {
+            writeEntryRecord(ENTRY_ADDED, calendar, entry);
+        }
+    }
+
+
+    /**
+     * Records an entry of a calendar being replaced.
+     * @param calendar The calendar holding the entry.
+     * @param entry    The new entry, carrying the id of the one it replaced.
+     */
+    public void entryEdited(CalendarObject calendar, Entry entry) {
+        writeEntryRecord(ENTRY_EDITED, calendar, entry);
+    }
+
+
+    /**
+     * Records an entry removed from a calendar.
+     * @param calendar The calendar the entry was removed from.
+     * @param entryId  The id of the removed entry.
+     */
+    public void entryRemoved(CalendarObject calendar, long entryId) {
+        this.dirtyHandles.add(calendar.getHandle());
+        try {
+            Record record = new Record(ENTRY_REMOVED);
+            record.out.writeInt(calendar.getHandle());
+            record.out.writeLong(entryId);
+            appendEntry(calendar.getHandle(), entryId, record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Waits until every reported change has been appended to the log.
+     */
+    public void flush() {
+        if (this.log != null) {
+            this.queue.flush();
+        }
+    }
+
+
+    /**
+     * Writes the current state to a new snapshot and starts the log over, after
+     * the queued changes are written. Reads every calendar, so it must run on the
+     * thread that changes them.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void compact() throws IOException {
+        flush();
+        if (this.log != null) {
+            long nextGeneration = this.snapshot.getGeneration() + 1;
+            Path snapshotFile = snapshotFile(nextGeneration);
+            this.snapshot.write(snapshotFile, nextGeneration, this.accounts, this.registry.getCalendars());
+            this.snapshot = Snapshot.open(snapshotFile);
+            this.snapshotSize = Files.size(snapshotFile);
+            this.log.reset(nextGeneration);
+            this.dirtyHandles.clear();
+            for (CalendarObject calendar : this.registry.getCalendars()) {
+                if (calendar.isLoaded()) {
+                    this.loadedCalendars.putIfAbsent(calendar.getHandle(), calendar);
+                }
+            }
+            deleteOldSnapshots();
+        }
+    }
+
+
+    /**
+     * Writes the queued changes, compacts the log if needed, syncs it and closes it,
+     * then reports the queue depth at close and the flush latency of the session.
+     * Nothing is saved after this.
+     */
+    public void close() {
+        if (this.log != null) {
+            int queueDepth = this.queue.getDepth();
+            this.queue.close();
+            long logRecords = this.log.getRecordCount();
+            try {
+                compactIfNeeded();
+                this.log.sync();
+                this.log.close();
+            } catch (IOException e) {
+                reportFailure(e);
+            }
+            this.log = null;
+            System.out.println(String.format("Saved changes: %d queued at close, %d log records, "
+                    + "flush latency %.2f ms average, %.2f ms max.", queueDepth, logRecords,
+                    this.queue.getAverageFlushMillis(), this.queue.getMaxFlushMillis()));
+        }
+    }
+
+
+    /**
+     * Checks whether the store is loaded and saving changes.
+     * @return true if changes are being saved.
+     */
+    public boolean isEnabled() {
+        return this.log != null;
+    }
+
+
+    /**
+     * Unloads the least recently used calendars until the loaded entries fit the
+     * budget. Calendars changed since the snapshot, or not in it, are kept.
+     * @param keep The calendar in use, which is never unloaded.
+     */
+    private void unloadIdleCalendars(CalendarObject keep) {
+        long loadedEntries = 0;
+        for (CalendarObject calendar : this.loadedCalendars.values()) {
+            loadedEntries += calendar.getEntryCount();
+        }
+        Iterator<CalendarObject> it = this.loadedCalendars.values().iterator();
+        while (loadedEntries > this.entryBudget && it.hasNext()) {
+            CalendarObject calendar = it.next();
+            if (this.registry.get(calendar.getHandle()) != calendar) {
+                loadedEntries -= calendar.getEntryCount();
+                it.remove();
+            } else if (calendar != keep && !this.dirtyHandles.contains(calendar.getHandle())
+                    && this.snapshot.hasEntries(calendar)) {
+                loadedEntries -= calendar.getEntryCount();
+                calendar.unloadEntries();
+                it.remove();
+            }
+        }
+    }
+
+
+    /**
+     * Returns the file of the snapshot with the given generation.
+     * @param generation The snapshot generation.
+     * @return The snapshot file.
+     */
+    private Path snapshotFile(long generation) {
+        return this.directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+
+    /**
+     * Finds the snapshot with the highest generation in the data directory.
+     * @return The snapshot file, or null if there is none.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private Path findLatestSnapshot() throws IOException {
+        Path latest = null;
+        long latestGeneration = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                long generation = generationOf(file);
+                if (generation > latestGeneration) {
+                    latest = file;
+                    latestGeneration = generation;
+                }
+            }
+        }
+        return latest;
+    }
+
+
+    /**
+     * Deletes snapshots older than the current one. A file that cannot be deleted
+     * yet, such as one still mapped, is left for the next attempt.
+     */
+    private void deleteOldSnapshots() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                long generation = generationOf(file);
+                if (generation >= 0 && generation < this.snapshot.getGeneration()) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Still in use; retried after the next compaction.
+                    }
+                }
+            }
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Parses the generation out of a snapshot file name.
+     * @param file The snapshot file.
+     * @return The generation, or -1 if the name does not hold one.
+     */
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Writes a record carrying a calendar handle, an entry id and an entry.
+     * @param type     The record type.
+     * @param calendar The calendar holding the entry.
+     * @param entry    The entry.
+     */
+    private void writeEntryRecord(byte type, CalendarObject calendar, Entry entry) {
+        this.dirtyHandles.add(calendar.getHandle());
+        try {
+            Record record = new Record(type);
+            record.out.writeInt(calendar.getHandle());
+            record.out.writeLong(entry.getId());
+            StorageCodec.writeEntry(record.out, entry);
+            appendEntry(calendar.getHandle(), entry.getId(), record);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+
+    /**
+     * Queues a record to be appended to the log.
+     * @param record The finished record.
+     */
+    private void append(Record record) {
+        if (this.log != null) {
+            this.queue.add(record.toByteArray());
+        }
+    }
+
+
+    /**
+     * Queues a record about one entry, to be merged with a queued record of the same entry.
+     * @param handle  The handle of the calendar holding the entry.
+     * @param entryId The entry id.
+     * @param record  The finished record.
+     */
+    private void appendEntry(int handle, long entryId, Record record) {
+        if (this.log != null) {
+            this.queue.addEntry(handle, entryId, record.toByteArray());
+        }
+    }
+
+
+    /**
+     * Merges a queued entry record with a newer record of the same entry. An entry
+     * edited before its addition was written is still added, with the new contents,
+     * and an entry removed before its addition was written needs no record at all.
+     * @param queued The queued record.
+     * @param next   The newer record.
+     * @return The record to queue instead, or null to drop both.
+     */
+    private static byte[] mergeEntryRecords(byte[] queued, byte[] next) {
+        if (queued[0] == ENTRY_ADDED && next[0] == ENTRY_REMOVED) {
+            return null;
+        }
+        if (queued[0] == ENTRY_ADDED) {
+            next[0] = ENTRY_ADDED;      // Edit records have the same layout as add records.
+        }
+        return next;
+    }
+
+
+    /**
+     * Compacts once the log is both past the minimum size and larger than the
+     * snapshot, so replaying the log never costs more than reading the snapshot.
+     * @throws IOException if compaction fails.
+     */
+    private void compactIfNeeded() throws IOException {
+        if (this.log != null && this.log.size() > Math.max(MIN_COMPACT_SIZE, this.snapshotSize)) {
+            compact();
+        }
+    }
+
+
+    /**
+     * Applies a replayed log record to the loaded accounts and calendars.
+     * @param in The record bytes, starting with the record type.
+     * @throws IOException if the record cannot be decoded.
+     */
+    private void apply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case ACCOUNT_ADDED: {
+                Account account = StorageCodec.readAccount(in);
+                if (!this.accountsByUsername.containsKey(account.getUsername())) {
+                    this.accounts.add(account);
+                    this.accountsByUsername.put(account.getUsername(), account);
+                }
+                break;
+            }
+            case PASSWORD_CHANGED: {
+                Account account = this.accountsByUsername.get(StorageCodec.readString(in));
+                String newPassword = StorageCodec.readString(in);
+                if (account != null) {
+                    account.setPassword(newPassword);
+                }
+                break;
+            }
+            case ACCOUNT_DEACTIVATED: {
+                Account account = this.accountsByUsername.get(StorageCodec.readString(in));
+                if (account != null) {
+                    account.setIsActive(false);
+                    this.registry.releaseOwner(account.getUsername());
+                }
+                break;
+            }
+            case CALENDAR_ADDED:
+                StorageCodec.readCalendarHeader(in, this.registry);
+                break;
+            case CALENDAR_REMOVED: {
+                CalendarObject calendar = this.registry.get(in.readInt());
+                if (calendar != null) {
+                    this.registry.remove(calendar);
+                }
+                break;
+            }
+            case VISIBILITY_CHANGED: {
+                CalendarObject calendar = this.registry.get(in.readInt());
+                boolean isPublic = in.readBoolean();
+                if (calendar != null) {
+                    calendar.setIsPublic(isPublic);
+                }
+                break;
+            }
+            case CALENDAR_OWNED:
+            case CALENDAR_DISOWNED: {
+                Account account = this.accountsByUsername.get(StorageCodec.readString(in));
+                String calendarName = StorageCodec.readString(in);
+                if (account != null && type == CALENDAR_OWNED) {
+                    account.addOwnedCalendar(calendarName);
+                } else if (account != null) {
+                    account.removeOwnedCalendar(calendarName);
+                }
+                break;
+            }
+            case ENTRY_ADDED:
+            case ENTRY_EDITED: {
+                CalendarObject calendar = loadForReplay(in.readInt());
+                long entryId = in.readLong();
+                Entry entry = StorageCodec.readEntry(in);
+                if (calendar != null && type == ENTRY_ADDED) {
+                    calendar.restoreEntry(entryId, entry);
+                } else if (calendar != null) {
+                    calendar.editEntry(entryId, entry);
+                }
+                break;
+            }
+            case ENTRY_REMOVED: {
+                CalendarObject calendar = loadForReplay(in.readInt());
+                long entryId = in.readLong();
+                if (calendar != null) {
+                    calendar.removeEntry(entryId);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown log record type: " + type);
+        }
+    }
+
+
+    /**
+     * Returns a calendar that a replayed entry record applies to, loading its entries
+     * from the snapshot first and marking it changed since the snapshot.
+     * @param handle The calendar handle from the record.
+     * @return The calendar, or null if no calendar has that handle.
+     * @throws IOException if the calendar's entries cannot be loaded.
+     */
+    private CalendarObject loadForReplay(int handle) throws IOException {
+        CalendarObject calendar = this.registry.get(handle);
+        if (calendar != null) {
+            if (!calendar.isLoaded()) {
+                this.snapshot.loadEntries(calendar);
+                this.loadedCalendars.put(handle, calendar);
+            }
+            this.dirtyHandles.add(handle);
+        }
+        return calendar;
+    }
+
+
+    /**
+     * Prints a failed save.
+     * @param e The error that stopped the save.
+     */
+    private void reportFailure(IOException e) {
+        System.out.println("Failed to save changes: " + e.getMessage());
+    }
+
+
+    /**
+     * A log record being built, starting with its type.
+     */
+    private static class Record {
+
+        /** Holds the record bytes. */
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        /** Writes into {@code bytes}. */
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+
+        /**
+         * Starts a record of the given type.
+         * @param type The record type.
+         * @throws IOException if writing fails.
+         */
+        private Record(byte type) throws IOException {
+            out.writeByte(type);
+        }
+
+
+        /**
+         * Returns the record bytes written so far.
+         * @return The record bytes.
+         */
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Locale;
+
+import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.Event;
+import com.hallareandrebollos.models.Journal;
+import com.hallareandrebollos.models.Meeting;
+import com.hallareandrebollos.models.Task;
+
+
+/**
+ * Reads entries from an iCalendar (RFC 5545) stream one component at a time, so
+ * only the component being read is held in memory. VEVENT becomes a {@link Meeting}
+ * if it is marked as one or has a URL and an {@link Event} otherwise, VTODO becomes
+ * a {@link Task} and VJOURNAL a {@link Journal}. Other components, and components
+ * nested inside these such as VALARM, are skipped.
+ *
+ * Times in UTC or with a TZID are converted to the system time zone, since entries
+ * only hold local times. A timed entry ending on a later day ends at 23:59 of its
+ * first day, and an all-day event runs from 00:00 to 23:59.
+ */
+public class IcsReader implements Closeable {
+
+    /** Property marking which kind of entry a VEVENT was exported from. */
+    static final String TYPE_PROPERTY = "X-DIGITAL-CALENDAR-TYPE";
+
+    /** Property holding the modality of an exported meeting. */
+    static final String MODALITY_PROPERTY = "X-DIGITAL-CALENDAR-MODALITY";
+
+    /** Property holding the creator of an exported task. */
+    static final String CREATED_BY_PROPERTY = "X-DIGITAL-CALENDAR-CREATED-BY";
+
+    /** Property holding the finisher of an exported task. */
+    static final String FINISHED_BY_PROPERTY = "X-DIGITAL-CALENDAR-FINISHED-BY";
+
+    /** Last time of day, used as the end of all-day and multi-day entries. */
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
+
+    /** The stream being read. */
+    private final BufferedReader in;
+
+    /** Username given as the creator of tasks that do not name one. */
+    private final String username;
+
+    /** Physical line read ahead while unfolding, or null if none. */
+    private String lookahead;
+
+    /** Number of components that could not be turned into entries. */
+    private int skippedCount;
+
+
+    /**
+     * A property of the component being read.
+     */
+    private static class Property {
+
+        /** Parameters by upper-case name, with quotes removed. */
+        private final HashMap<String, String> params = new HashMap<>();
+
+        /** The raw value, still escaped. */
+        private String value;
+    }
+
+
+    /**
+     * Starts reading an iCalendar stream.
+     * @param in       The stream to read.
+     * @param username Username given as the creator of tasks that do not name one.
+     */
+    public IcsReader(Reader in, String username) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.username = username;
+    }
+
+
+    /**
+     * Reads the next entry.
+     * @return The entry, or null at the end of the stream.
+     * @throws IOException if reading fails.
+     */
+    public Entry next() throws IOException {
+        String line;
+        while ((line = readUnfolded()) != null) {
+            if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                String component = line.substring(6).trim().toUpperCase(Locale.ROOT);
+                if (component.equals("VEVENT") || component.equals("VTODO") || component.equals("VJOURNAL")) {
+                    HashMap<String, Property> properties = readComponent(component);
+                    Entry entry = null;
+                    try {
+                        entry = properties != null ? toEntry(component, properties) : null;
+                    } catch (DateTimeException | IllegalArgumentException e) {
+                        // Bad date, time or duration: skipped below.
+                    }
+                    if (entry != null) {
+                        return entry;
+                    }
+                    this.skippedCount++;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns the number of components that could not be turned into entries so far,
+     * such as ones without a date or with an unreadable one.
+     * @return The skipped component count.
+     */
+    public int getSkippedCount() {
+        return this.skippedCount;
+    }
+
+
+    /**
+     * Closes the stream.
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+
+    /**
+     * Reads the properties of a component up to its END line, skipping nested components.
+     * @param component The upper-case component name.
+     * @return The first occurrence of each property by upper-case name, or null if the
+     *         stream ended first.
+     * @throws IOException if reading fails.
+     */
+    private HashMap<String, Property> readComponent(String component) throws IOException {
+        HashMap<String, Property> properties = new HashMap<>();
+        int depth = 0;
+        String line;
+        while ((line = readUnfolded()) != null) {
+            if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                depth++;
+            } else if (line.regionMatches(true, 0, "END:", 0, 4)) {
+                if (depth == 0) {
+                    return properties;
+                }
+                depth--;
+            } else if (depth == 0) {
+                parseProperty(line, properties);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Parses a content line into its name, parameters and value.
+     * @param line       The unfolded line.
+     * @param properties The properties to add it to, unless one with its name is there.
+     */
+    private static void parseProperty(String line, HashMap<String, Property> properties) {
+        Property property = new Property();
+        int i = 0;
+        while (i < line.length() && line.charAt(i) != ';' && line.charAt(i) != ':') {
+            i++;
+        }
+        String name = line.substring(0, i).toUpperCase(Locale.ROOT);
+
+        // Parameters: ;NAME=value or ;NAME="quoted value", up to the colon before the value.
+        while (i < line.length() && line.charAt(i) == ';') {
+            int nameStart = ++i;
+            while (i < line.length() && line.charAt(i) != '=' && line.charAt(i) != ';' && line.charAt(i) != ':') {
+                i++;
+            }
+            String paramName = line.substring(nameStart, i).toUpperCase(Locale.ROOT);
+            StringBuilder paramValue = new StringBuilder();
+            if (i < line.length() && line.charAt(i) == '=') {
+                i++;
+                boolean quoted = false;
+                while (i < line.length() && (quoted || (line.charAt(i) != ';' && line.charAt(i) != ':'))) {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        quoted = !quoted;
+                    } else {
+                        paramValue.append(c);
+                    }
+                }
+            }
+            property.params.put(paramName, paramValue.toString());
+        }
+
+        if (i < line.length() && line.charAt(i) == ':') {
+            property.value = line.substring(i + 1);
+            properties.putIfAbsent(name, property);
+        }
+    }
+
+
+    /**
+     * Turns the properties of a component into an entry.
+     * @param component  The upper-case component name.
+     * @param properties The component's properties.
+     * @return The entry, or null if the component has no usable date.
+     */
+    private Entry toEntry(String component, HashMap<String, Property> properties) {
+        String title = text(properties, "SUMMARY");
+        String description = text(properties, "DESCRIPTION");
+        if (title == null || title.isBlank()) {
+            title = "(No title)";
+        }
+        if (description == null) {
+            description = "";
+        }
+
+        LocalDateTime start = dateTime(properties.get("DTSTART"));
+        switch (component) {
+            case "VTODO": {
+                LocalDateTime due = dateTime(properties.get("DUE"));
+                LocalDateTime date = due != null ? due : start;
+                if (date == null) {
+                    return null;
+                }
+                String status = "COMPLETED".equalsIgnoreCase(text(properties, "STATUS")) ? "Done" : "Pending";
+                String createdBy = text(properties, CREATED_BY_PROPERTY);
+                return new Task(title, date.toLocalDate(), description, priority(text(properties, "PRIORITY")),
+                                status, createdBy != null ? createdBy : this.username,
+                                text(properties, FINISHED_BY_PROPERTY));
+            }
+            case "VJOURNAL":
+                if (start == null) {
+                    return null;
+                }
+                return new Journal(title, start.toLocalDate(), description.isBlank() ? title : description);
+            default: {
+                if (start == null) {
+                    return null;
+                }
+                LocalDate date = start.toLocalDate();
+                boolean allDay = isDate(properties.get("DTSTART"));
+                LocalTime startTime = allDay ? LocalTime.MIDNIGHT : start.toLocalTime();
+                LocalTime endTime = endTime(properties, start, allDay);
+
+                String venue = text(properties, "LOCATION");
+                String link = text(properties, "URL");
+                String type = text(properties, TYPE_PROPERTY);
+                boolean isMeeting = type != null ? type.equalsIgnoreCase("MEETING") : link != null;
+                if (isMeeting) {
+                    String modality = text(properties, MODALITY_PROPERTY);
+                    if (modality == null) {
+                        modality = link == null ? "Onsite" : venue == null ? "Online" : "Hybrid";
+                    }
+                    return new Meeting(title, date, startTime, endTime, description, modality, venue, link);
+                }
+                String organizer = organizer(properties.get("ORGANIZER"));
+                return new Event(title, date, description, venue != null ? venue : "",
+                                 organizer != null ? organizer : "", startTime, endTime);
+            }
+        }
+    }
+
+
+    /**
+     * Works out the end time of an event from DTEND or DURATION, on the day it starts.
+     * @param properties The event's properties.
+     * @param start      The start of the event.
+     * @param allDay     Whether the event is all-day.
+     * @return The end time, never before the start time.
+     */
+    private static LocalTime endTime(HashMap<String, Property> properties, LocalDateTime start, boolean allDay) {
+        if (allDay) {
+            return END_OF_DAY;
+        }
+        LocalDateTime end = dateTime(properties.get("DTEND"));
+        Property duration = properties.get("DURATION");
+        if (end == null && duration != null) {
+            end = start.plus(duration(duration.value.trim()));
+        }
+        if (end == null || end.isBefore(start)) {
+            return start.toLocalTime();
+        }
+        return end.toLocalDate().isAfter(start.toLocalDate()) ? END_OF_DAY : end.toLocalTime();
+    }
+
+
+    /**
+     * Parses a duration such as PT1H30M, P1D or P2W.
+     * @param value The duration value.
+     * @return The duration.
+     */
+    private static Duration duration(String value) {
+        boolean negative = value.startsWith("-");
+        String unsigned = value.replaceFirst("^[+-]", "");
+        Duration duration;
+        if (unsigned.endsWith("W")) {
+            duration = Duration.ofDays(7L * Long.parseLong(unsigned.substring(1, unsigned.length() - 1)));
+        } else {
+            duration = Duration.parse(unsigned);
+        }
+        return negative ? duration.negated() : duration;
+    }
+
+
+    /**
+     * Checks whether a date property holds a date without a time.
+     * @param property The property, or null.
+     * @return true if it is a DATE value.
+     */
+    private static boolean isDate(Property property) {
+        return property != null && ("DATE".equalsIgnoreCase(property.params.get("VALUE"))
+                || property.value.trim().length() == 8);
+    }
+
+
+    /**
+     * Parses a DATE or DATE-TIME property into a local date and time. UTC times and
+     * times with a known TZID are converted to the system time zone.
+     * @param property The property, or null.
+     * @return The date and time, midnight for a DATE, or null if the property is missing.
+     * @throws IllegalArgumentException if the value is too short to hold a date.
+     */
+    private static LocalDateTime dateTime(Property property) {
+        if (property == null) {
+            return null;
+        }
+        String value = property.value.trim();
+        if (value.length() < 8) {
+            throw new IllegalArgumentException("Not a date: " + value);
+        }
+        LocalDate date = LocalDate.of(Integer.parseInt(value.substring(0, 4)),
+                Integer.parseInt(value.substring(4, 6)), Integer.parseInt(value.substring(6, 8)));
+        if (value.length() < 15 || value.charAt(8) != 'T') {
+            return date.atStartOfDay();
+        }
+        LocalDateTime local = date.atTime(Integer.parseInt(value.substring(9, 11)),
+                Integer.parseInt(value.substring(11, 13)), Integer.parseInt(value.substring(13, 15)));
+
+        ZoneId zone = null;
+        if (value.endsWith("Z")) {
+            zone = ZoneOffset.UTC;
+        } else if (property.params.containsKey("TZID")) {
+            try {
+                zone = ZoneId.of(property.params.get("TZID"));
+            } catch (DateTimeException e) {
+                // Unknown zone name, such as a Windows one: the time is kept as written.
+            }
+        }
+        return zone != null ? local.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : local;
+    }
+
+
+    /**
+     * Maps an iCalendar priority (1 highest to 9 lowest, 0 undefined) to a task priority.
+     * @param value The PRIORITY value, or null.
+     * @return "High", "Medium" or "Low".
+     */
+    private static String priority(String value) {
+        int priority = 0;
+        try {
+            priority = value != null ? Integer.parseInt(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            // Treated as undefined.
+        }
+        if (priority >= 1 && priority <= 4) {
+            return "High";
+        }
+        return priority >= 6 ? "Low" : "Medium";
+    }
+
+
+    /**
+     * Returns the name of an organizer: its CN parameter, or the address without "mailto:".
+     * @param property The ORGANIZER property, or null.
+     * @return The organizer name, or null if there is none.
+     */
+    private static String organizer(Property property) {
+        if (property == null) {
+            return null;
+        }
+        String name = property.params.get("CN");
+        if (name == null || name.isBlank()) {
+            name = property.value.regionMatches(true, 0, "mailto:", 0, 7) ? property.value.substring(7) : property.value;
+        }
+        return name;
+    }
+
+
+    /**
+     * Returns the unescaped value of a text property.
+     * @param properties The component's properties.
+     * @param name       The upper-case property name.
+     * @return The text, or null if the property is missing.
+     */
+    private static String text(HashMap<String, Property> properties, String name) {
+        Property property = properties.get(name);
+        if (property == null) {
+            return null;
+        }
+        String value = property.value;
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                text.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+
+    /**
+     * Reads one content line, joining the physical lines it was folded into.
+     * @return The unfolded line, or null at the end of the stream.
+     * @throws IOException if reading fails.
+     */
+    private String readUnfolded() throws IOException {
+        String line = this.lookahead != null ? this.lookahead : this.in.readLine();
+        this.lookahead = null;
+        if (line == null) {
+            return null;
+        }
+        String next = this.in.readLine();
+        if (next == null || next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+            this.lookahead = next;
+            return line;
+        }
+        StringBuilder unfolded = new StringBuilder(line);
+        while (next != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            unfolded.append(next, 1, next.length());
+            next = this.in.readLine();
+        }
+        this.lookahead = next;
+        return unfolded.toString();
+    }
+}
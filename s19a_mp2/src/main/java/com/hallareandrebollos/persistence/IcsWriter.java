@@ -0,0 +1,217 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.Event;
+import com.hallareandrebollos.models.Journal;
+import com.hallareandrebollos.models.Meeting;
+import com.hallareandrebollos.models.Task;
+import com.hallareandrebollos.models.TimedEntry;
+
+
+/**
+ * Writes entries to an iCalendar (RFC 5545) stream one at a time, so a calendar
+ * of any size is exported without building the file in memory. Events and
+ * meetings become VEVENTs, tasks VTODOs and journals VJOURNALs. Fields iCalendar
+ * has no property for are written as X- properties that {@link IcsReader} reads back.
+ *
+ * Times are written as floating local times, the way entries hold them.
+ */
+public class IcsWriter implements Closeable {
+
+    /** Longest content line in octets, not counting the line break. */
+    private static final int MAX_LINE_OCTETS = 75;
+
+    /** Format of DATE values. */
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("uuuuMMdd");
+
+    /** Format of floating DATE-TIME values. */
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss");
+
+    /** The stream being written. */
+    private final BufferedWriter out;
+
+    /** Name of the calendar being exported, used in the entry UIDs. */
+    private final String calendarName;
+
+    /** Time stamp written on every entry, in UTC. */
+    private final String stamp;
+
+
+    /**
+     * Starts an iCalendar stream and writes its header.
+     * @param out          The stream to write to.
+     * @param calendarName Name of the calendar being exported.
+     * @throws IOException if writing fails.
+     */
+    public IcsWriter(Writer out, String calendarName) throws IOException {
+        this.out = out instanceof BufferedWriter buffered ? buffered : new BufferedWriter(out);
+        this.calendarName = calendarName;
+        this.stamp = ZonedDateTime.now(ZoneOffset.UTC).format(DATE_TIME) + "Z";
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//Hallare and Rebollos//Digital Calendar//EN");
+        writeLine("CALSCALE:GREGORIAN");
+        writeLine("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+
+    /**
+     * Writes one entry as a component.
+     * @param entry The entry to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(Entry entry) throws IOException {
+        String component = entry instanceof Task ? "VTODO" : entry instanceof Journal ? "VJOURNAL" : "VEVENT";
+        writeLine("BEGIN:" + component);
+        writeLine("UID:" + UUID.nameUUIDFromBytes((this.calendarName + "/" + entry.getId())
+                .getBytes(StandardCharsets.UTF_8)));
+        writeLine("DTSTAMP:" + this.stamp);
+        writeText("SUMMARY", entry.getTitle());
+        writeText("DESCRIPTION", entry.getDescription());
+
+        if (entry instanceof TimedEntry timed) {
+            writeTimes(entry.getDate(), timed.getStartTime(), timed.getEndTime());
+        } else if (!(entry instanceof Task)) {
+            writeLine("DTSTART;VALUE=DATE:" + entry.getDate().format(DATE));
+        }
+
+        if (entry instanceof Meeting meeting) {
+            writeLine(IcsReader.TYPE_PROPERTY + ":MEETING");
+            writeText(IcsReader.MODALITY_PROPERTY, meeting.getModality());
+            writeText("LOCATION", meeting.getVenue());
+            writeText("URL", meeting.getLink());
+        } else if (entry instanceof Event event) {
+            writeLine(IcsReader.TYPE_PROPERTY + ":EVENT");
+            writeText("LOCATION", event.getVenue());
+            if (event.getOrganizer() != null && !event.getOrganizer().isBlank()) {
+                writeLine("ORGANIZER;CN=\"" + event.getOrganizer().replace("\"", "'") + "\":invalid:nomail");
+            }
+        } else if (entry instanceof Task task) {
+            writeLine("DUE;VALUE=DATE:" + entry.getDate().format(DATE));
+            writeLine("PRIORITY:" + priority(task.getPriority()));
+            writeLine("STATUS:" + ("Done".equalsIgnoreCase(task.getStatus()) ? "COMPLETED" : "NEEDS-ACTION"));
+            writeText(IcsReader.CREATED_BY_PROPERTY, task.getCreatedBy());
+            writeText(IcsReader.FINISHED_BY_PROPERTY, task.getFinishedBy());
+        }
+        writeLine("END:" + component);
+    }
+
+
+    /**
+     * Ends the iCalendar stream and closes it.
+     * @throws IOException if writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeLine("END:VCALENDAR");
+        } finally {
+            this.out.close();
+        }
+    }
+
+
+    /**
+     * Writes the start and end of a meeting or event, as a whole day if it has no times.
+     * @param date  The date of the entry.
+     * @param start The start time, or null.
+     * @param end   The end time, or null.
+     * @throws IOException if writing fails.
+     */
+    private void writeTimes(LocalDate date, LocalTime start, LocalTime end) throws IOException {
+        if (start == null) {
+            writeLine("DTSTART;VALUE=DATE:" + date.format(DATE));
+            writeLine("DTEND;VALUE=DATE:" + date.plusDays(1).format(DATE));
+        } else {
+            writeLine("DTSTART:" + date.atTime(start).format(DATE_TIME));
+            if (end != null && !end.isBefore(start)) {
+                writeLine("DTEND:" + date.atTime(end).format(DATE_TIME));
+            }
+        }
+    }
+
+
+    /**
+     * Maps a task priority to an iCalendar priority.
+     * @param priority "High", "Medium" or "Low".
+     * @return 1, 5 or 9.
+     */
+    private static int priority(String priority) {
+        if ("High".equalsIgnoreCase(priority)) {
+            return 1;
+        }
+        return "Low".equalsIgnoreCase(priority) ? 9 : 5;
+    }
+
+
+    /**
+     * Writes a text property, unless its value is missing or blank.
+     * @param name  The property name.
+     * @param value The unescaped value, or null.
+     * @throws IOException if writing fails.
+     */
+    private void writeText(String name, String value) throws IOException {
+        if (value != null && !value.isBlank()) {
+            writeLine(name + ":" + escape(value));
+        }
+    }
+
+
+    /**
+     * Escapes text as a TEXT value.
+     * @param text The text.
+     * @return The text with backslashes, semicolons, commas and line breaks escaped.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                    // Dropped: line breaks are written as "\n" alone.
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+
+    /**
+     * Writes a content line, folding it so no physical line is longer than
+     * 75 octets. Folds never split a character.
+     * @param line The content line.
+     * @throws IOException if writing fails.
+     */
+    private void writeLine(String line) throws IOException {
+        int octets = 0;
+        int limit = MAX_LINE_OCTETS;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > limit) {
+                this.out.write("\r\n ");
+                octets = 0;
+                limit = MAX_LINE_OCTETS - 1;    // The leading space counts towards the line.
+            }
+            this.out.write(line, i, Character.charCount(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        this.out.write("\r\n");
+    }
+}
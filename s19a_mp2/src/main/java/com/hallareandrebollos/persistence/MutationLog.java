@@ -0,0 +1,217 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append-only file of mutation records. The file starts with a header holding the
+ * generation of the snapshot it continues; a log whose generation does not match
+ * the snapshot is stale and is discarded. Each record is framed as its length, its
+ * bytes and a CRC32 of the bytes, so a record torn by a crash is detected and cut
+ * off instead of being replayed.
+ */
+final class MutationLog implements AutoCloseable {
+
+    /** Marks the start of a log file ("CLOG"). */
+    private static final int MAGIC = 0x434C4F47;
+
+    /** Size of the file header: magic and generation. */
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /** Largest record accepted when replaying, to reject garbage lengths. */
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+
+    /**
+     * Applies a replayed record.
+     */
+    interface RecordHandler {
+
+        /**
+         * Applies one record.
+         * @param record The record bytes.
+         * @throws IOException if the record cannot be decoded.
+         */
+        void apply(DataInputStream record) throws IOException;
+    }
+
+
+    /** The open log file. */
+    private final FileChannel channel;
+
+    /** Number of records appended or replayed since the log was started. */
+    private long recordCount;
+
+
+    /**
+     * Wraps an open log file positioned at its end.
+     * @param channel     The open log file.
+     * @param recordCount Number of records already in the file.
+     */
+    private MutationLog(FileChannel channel, long recordCount) {
+        this.channel = channel;
+        this.recordCount = recordCount;
+    }
+
+
+    /**
+     * Opens a log file, replaying its records if it continues the given generation.
+     * A missing, stale or unreadable log is started over empty. A torn record at the
+     * end is cut off.
+     * @param file       The log file.
+     * @param generation The generation of the loaded snapshot.
+     * @param handler    Applies each replayed record.
+     * @return The open log, positioned for appending.
+     * @throws IOException if the file cannot be opened or a record cannot be applied.
+     */
+    static MutationLog open(Path file, long generation, RecordHandler handler) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MutationLog log = new MutationLog(channel, 0);
+        try {
+            long validEnd = log.replay(generation, handler);
+            if (validEnd < 0) {
+                log.reset(generation);
+            } else {
+                channel.truncate(validEnd);
+                channel.position(validEnd);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return log;
+    }
+
+
+    /**
+     * Replays every intact record of the file.
+     * @param generation The generation the log must continue.
+     * @param handler    Applies each record.
+     * @return The position just past the last intact record, or -1 if the header is
+     *         missing or belongs to another generation.
+     * @throws IOException if reading fails or a record cannot be applied.
+     */
+    private long replay(long generation, RecordHandler handler) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        long validEnd = -1;
+        try {
+            if (in.readInt() == MAGIC && in.readLong() == generation) {
+                validEnd = HEADER_SIZE;
+                CRC32 crc = new CRC32();
+                while (true) {
+                    int length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    byte[] record = new byte[length];
+                    in.readFully(record);
+                    crc.reset();
+                    crc.update(record);
+                    if (in.readInt() != (int) crc.getValue()) {
+                        break;
+                    }
+                    handler.apply(new DataInputStream(new ByteArrayInputStream(record)));
+                    validEnd += Integer.BYTES + length + Integer.BYTES;
+                    this.recordCount++;
+                }
+            }
+        } catch (EOFException e) {
+            // End of file, or a record torn by a crash: keep what was read so far.
+        }
+        return validEnd;
+    }
+
+
+    /**
+     * Appends records in a single write and hands them to the operating system.
+     * @param records The record bytes, in order.
+     * @throws IOException if writing fails.
+     */
+    void append(List<byte[]> records) throws IOException {
+        int size = 0;
+        for (byte[] record : records) {
+            size += Integer.BYTES + record.length + Integer.BYTES;
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length).put(record).putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        this.recordCount += records.size();
+    }
+
+
+    /**
+     * Empties the log and starts it over for a new generation.
+     * @param generation The generation of the snapshot the log now continues.
+     * @throws IOException if writing fails.
+     */
+    void reset(long generation) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(generation).flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        this.recordCount = 0;
+    }
+
+
+    /**
+     * Returns the size of the log file in bytes.
+     * @return The file size.
+     * @throws IOException if the size cannot be read.
+     */
+    long size() throws IOException {
+        return channel.size();
+    }
+
+
+    /**
+     * Returns the number of records in the log.
+     * @return The record count.
+     */
+    long getRecordCount() {
+        return this.recordCount;
+    }
+
+
+    /**
+     * Forces appended records to disk.
+     * @throws IOException if syncing fails.
+     */
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+
+    /**
+     * Closes the log file.
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
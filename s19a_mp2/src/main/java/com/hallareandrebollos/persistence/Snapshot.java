@@ -0,0 +1,763 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+import com.hallareandrebollos.models.Account;
+import com.hallareandrebollos.models.CalendarObject;
+import com.hallareandrebollos.models.CalendarRegistry;
+import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.Event;
+import com.hallareandrebollos.models.FamilyCalendar;
+import com.hallareandrebollos.models.Journal;
+import com.hallareandrebollos.models.Meeting;
+import com.hallareandrebollos.models.Task;
+
+
+/**
+ * A compact binary file holding the full state of the application, read through
+ * a memory-mapped buffer.
+ *
+ * Numbers are written as variable-length integers, dates as epoch days and entries
+ * with a one-byte type tag. Strings that repeat across many entries (usernames,
+ * priorities, statuses, modalities) are stored once in a dictionary and referenced
+ * by position; titles, descriptions and other free text are stored inline.
+ *
+ * The entries of each calendar are stored as a separate block, followed by an index
+ * holding the dictionary, a table of calendars with their block positions and
+ * summaries, and the accounts. Opening a snapshot only reads the index, so each
+ * calendar's entries can be decoded from the mapping when the calendar is first
+ * used. When a new snapshot is written, the blocks of calendars that were never
+ * loaded are copied over unchanged; the new dictionary therefore starts with every
+ * string of the old one so the copied references stay valid.
+ */
+final class Snapshot {
+
+    /** Marks the start of a snapshot file ("CSNP"). */
+    private static final int MAGIC = 0x43534E50;
+
+    /** Version of the snapshot layout. */
+    private static final int VERSION = 3;
+
+    /** Position of the index offset in the header. */
+    private static final int INDEX_OFFSET_POSITION = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /** Calendar flag: the calendar is public. */
+    private static final int FLAG_PUBLIC = 1;
+
+    /** Calendar flag: the calendar is a {@link FamilyCalendar}. */
+    private static final int FLAG_FAMILY = 2;
+
+    /** The mapped file, or null for the empty snapshot. */
+    private final ByteBuffer buffer;
+
+    /** Generation of the snapshot, 0 for the empty snapshot. */
+    private final long generation;
+
+    /** The dictionary of repeated strings. */
+    private final String[] dictionary;
+
+    /** Saved calendars in the order they were written. */
+    private final ArrayList<CalendarInfo> calendars;
+
+    /** Saved calendars keyed by handle. */
+    private final HashMap<Integer, CalendarInfo> calendarsByHandle;
+
+    /** Position of the accounts in the file. */
+    private final int accountsOffset;
+
+
+    /**
+     * Constructs a snapshot from its parsed index.
+     * @param buffer         The mapped file, or null for the empty snapshot.
+     * @param generation     The generation of the snapshot.
+     * @param dictionary     The dictionary of repeated strings.
+     * @param calendars      The saved calendars.
+     * @param accountsOffset The position of the accounts in the file.
+     */
+    private Snapshot(ByteBuffer buffer, long generation, String[] dictionary,
+                     ArrayList<CalendarInfo> calendars, int accountsOffset) {
+        this.buffer = buffer;
+        this.generation = generation;
+        this.dictionary = dictionary;
+        this.calendars = calendars;
+        this.calendarsByHandle = new HashMap<>();
+        for (CalendarInfo info : calendars) {
+            this.calendarsByHandle.put(info.handle, info);
+        }
+        this.accountsOffset = accountsOffset;
+    }
+
+
+    /**
+     * Maps a snapshot file and reads its index.
+     * @param file The snapshot file, or null if there is no snapshot yet.
+     * @return The snapshot, or an empty snapshot of generation 0 if there is no file.
+     * @throws IOException if the file cannot be read or is not a snapshot.
+     */
+    static Snapshot open(Path file) throws IOException {
+        if (file == null || !Files.exists(file)) {
+            return new Snapshot(null, 0, new String[0], new ArrayList<>(), 0);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a calendar snapshot: " + file);
+            }
+            long generation = buffer.getLong();
+            buffer.position((int) buffer.getLong());
+            Reader in = new Reader(buffer, new String[0]);
+            String[] dictionary = new String[in.readVarInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readString();
+            }
+            in = new Reader(buffer, dictionary);
+            int calendarCount = in.readVarInt();
+            ArrayList<CalendarInfo> calendars = new ArrayList<>(calendarCount);
+            for (int i = 0; i < calendarCount; i++) {
+                calendars.add(in.readCalendarInfo());
+            }
+            return new Snapshot(buffer, generation, dictionary, calendars, buffer.position());
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt snapshot: " + file, e);
+        }
+    }
+
+
+    /**
+     * Returns the generation of the snapshot.
+     * @return The generation, 0 for the empty snapshot.
+     */
+    long getGeneration() {
+        return this.generation;
+    }
+
+
+    /**
+     * Adds the saved accounts to the given list and registers the saved calendars
+     * under their saved handles. Calendars with entries are registered unloaded,
+     * holding only their entry count and date range. Calendars whose handle or
+     * name is already taken are skipped.
+     * @param accounts The list to add the accounts to.
+     * @param registry The registry to add the calendars to.
+     * @throws IOException if the file is corrupt.
+     */
+    void restore(ArrayList<Account> accounts, CalendarRegistry registry) throws IOException {
+        for (CalendarInfo info : this.calendars) {
+            CalendarObject calendar = (info.flags & FLAG_FAMILY) != 0
+                ? new FamilyCalendar(info.passcode, info.name, (info.flags & FLAG_PUBLIC) != 0)
+                : new CalendarObject(info.name, (info.flags & FLAG_PUBLIC) != 0);
+            if (registry.restore(calendar, info.owner, info.handle) && info.entryCount > 0) {
+                calendar.markUnloaded(info.entryCount, info.firstDate, info.lastDate);
+            }
+        }
+        if (this.buffer != null) {
+            try {
+                Reader in = new Reader(this.buffer.duplicate().position(this.accountsOffset), this.dictionary);
+                int accountCount = in.readVarInt();
+                accounts.ensureCapacity(accounts.size() + accountCount);
+                for (int i = 0; i < accountCount; i++) {
+                    accounts.add(in.readAccount());
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt snapshot accounts", e);
+            }
+        }
+    }
+
+
+    /**
+     * Checks whether the snapshot holds the entries of a calendar.
+     * @param calendar The calendar.
+     * @return true if the snapshot has an entry block for the calendar's handle.
+     */
+    boolean hasEntries(CalendarObject calendar) {
+        return this.calendarsByHandle.containsKey(calendar.getHandle());
+    }
+
+
+    /**
+     * Decodes the entries of an unloaded calendar from the mapping and marks it loaded.
+     * @param calendar The unloaded calendar.
+     * @throws IOException if the snapshot has no entries for the calendar or they are corrupt.
+     */
+    void loadEntries(CalendarObject calendar) throws IOException {
+        CalendarInfo info = this.calendarsByHandle.get(calendar.getHandle());
+        if (info == null || this.buffer == null) {
+            throw new IOException("No saved entries for calendar " + calendar.getCalendarName());
+        }
+        try {
+            Reader in = new Reader(this.buffer.duplicate().position(info.offset), this.dictionary);
+            for (int i = 0; i < info.entryCount; i++) {
+                long id = in.readVarLong();
+                calendar.restoreEntry(id, in.readEntry());
+            }
+            calendar.markLoaded();
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt entries for calendar " + calendar.getCalendarName(), e);
+        }
+    }
+
+
+    /**
+     * Writes every account and calendar to a new snapshot file. Loaded calendars are
+     * encoded from memory; unloaded calendars have their blocks copied from this snapshot.
+     * @param file       The new snapshot file.
+     * @param generation The generation of the new snapshot.
+     * @param accounts   The accounts to save.
+     * @param calendars  The calendars to save.
+     * @throws IOException if writing fails or an unloaded calendar has no block here.
+     */
+    void write(Path file, long generation, Collection<Account> accounts,
+               Collection<CalendarObject> calendars) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Dictionary newDictionary = new Dictionary(this.dictionary);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeLong(0);
+            ArrayList<CalendarInfo> infos = new ArrayList<>(calendars.size());
+            for (CalendarObject calendar : calendars) {
+                int offset = checkedSize(out);
+                if (calendar.isLoaded()) {
+                    for (Entry entry : calendar.getEntries()) {
+                        writeVarLong(out, entry.getId());
+                        writeEntry(out, newDictionary, entry);
+                    }
+                } else {
+                    copyBlock(out, this.calendarsByHandle.get(calendar.getHandle()), calendar);
+                }
+                infos.add(new CalendarInfo(calendar, offset, checkedSize(out) - offset));
+            }
+            int indexOffset = checkedSize(out);
+            // The dictionary goes first in the index, so every string it will reference is added now.
+            for (CalendarInfo info : infos) {
+                newDictionary.ref(info.owner);
+            }
+            for (Account account : accounts) {
+                newDictionary.ref(account.getUsername());
+            }
+            writeVarInt(out, newDictionary.strings.size());
+            for (String value : newDictionary.strings) {
+                writeString(out, value);
+            }
+            writeVarInt(out, infos.size());
+            for (CalendarInfo info : infos) {
+                writeCalendarInfo(out, newDictionary, info);
+            }
+            writeVarInt(out, accounts.size());
+            for (Account account : accounts) {
+                writeAccount(out, newDictionary, account);
+            }
+            out.flush();
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES).putLong(indexOffset).flip();
+            channel.write(header, INDEX_OFFSET_POSITION);
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Copies the entry block of an unloaded calendar from this snapshot.
+     * @param out      The output to write to.
+     * @param info     The calendar's entry in this snapshot, or null if missing.
+     * @param calendar The unloaded calendar.
+     * @throws IOException if writing fails or the block is missing.
+     */
+    private void copyBlock(DataOutputStream out, CalendarInfo info, CalendarObject calendar) throws IOException {
+        if (info == null || this.buffer == null) {
+            throw new IOException("No saved entries for unloaded calendar " + calendar.getCalendarName());
+        }
+        ByteBuffer block = this.buffer.duplicate().position(info.offset).limit(info.offset + info.length);
+        byte[] chunk = new byte[Math.min(info.length, 1 << 16)];
+        while (block.hasRemaining()) {
+            int length = Math.min(chunk.length, block.remaining());
+            block.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes written so far, failing once the file could no
+     * longer be mapped as a whole.
+     * @param out The output being written.
+     * @return The bytes written.
+     * @throws IOException if the snapshot has grown too large.
+     */
+    private static int checkedSize(DataOutputStream out) throws IOException {
+        if (out.size() == Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large to map");
+        }
+        return out.size();
+    }
+
+
+    /**
+     * Writes an account.
+     * @param out        The output to write to.
+     * @param dictionary The dictionary for repeated strings.
+     * @param account    The account to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeAccount(DataOutputStream out, Dictionary dictionary, Account account) throws IOException {
+        writeVarInt(out, dictionary.ref(account.getUsername()));
+        writeString(out, account.getPassword());
+        out.writeBoolean(account.getIsActive());
+        writeVarInt(out, account.getOwnedCalendars().size());
+        for (String calendarName : account.getOwnedCalendars()) {
+            writeString(out, calendarName);
+        }
+    }
+
+
+    /**
+     * Writes a calendar's table row: its handle, kind, name, owner, entry summary and block.
+     * @param out        The output to write to.
+     * @param dictionary The dictionary for repeated strings.
+     * @param info       The calendar's row.
+     * @throws IOException if writing fails.
+     */
+    private static void writeCalendarInfo(DataOutputStream out, Dictionary dictionary, CalendarInfo info) throws IOException {
+        writeVarInt(out, info.handle);
+        out.writeByte(info.flags);
+        if ((info.flags & FLAG_FAMILY) != 0) {
+            out.writeInt(info.passcode);
+        }
+        writeString(out, info.name);
+        writeVarInt(out, dictionary.ref(info.owner));
+        writeVarInt(out, info.entryCount);
+        if (info.entryCount > 0) {
+            writeEpochDay(out, info.firstDate);
+            writeEpochDay(out, info.lastDate);
+        }
+        writeVarInt(out, info.offset);
+        writeVarInt(out, info.length);
+    }
+
+
+    /**
+     * Writes an entry with its type tag.
+     * @param out        The output to write to.
+     * @param dictionary The dictionary for repeated strings.
+     * @param entry      The entry to write.
+     * @throws IOException if writing fails or the entry type is unknown.
+     */
+    private static void writeEntry(DataOutputStream out, Dictionary dictionary, Entry entry) throws IOException {
+        if (entry instanceof Event event) {
+            out.writeByte(StorageCodec.EVENT);
+            writeCommon(out, entry);
+            writeString(out, event.getVenue());
+            writeVarInt(out, dictionary.ref(event.getOrganizer()));
+            writeTime(out, event.getStartTime());
+            writeTime(out, event.getEndTime());
+        } else if (entry instanceof Meeting meeting) {
+            out.writeByte(StorageCodec.MEETING);
+            writeCommon(out, entry);
+            writeVarInt(out, dictionary.ref(meeting.getModality()));
+            writeString(out, meeting.getVenue());
+            writeString(out, meeting.getLink());
+            writeTime(out, meeting.getStartTime());
+            writeTime(out, meeting.getEndTime());
+        } else if (entry instanceof Task task) {
+            out.writeByte(StorageCodec.TASK);
+            writeCommon(out, entry);
+            writeVarInt(out, dictionary.ref(task.getPriority()));
+            writeVarInt(out, dictionary.ref(task.getStatus()));
+            writeVarInt(out, dictionary.ref(task.getCreatedBy()));
+            writeVarInt(out, dictionary.ref(task.getFinishedBy()));
+        } else if (entry instanceof Journal) {
+            out.writeByte(StorageCodec.JOURNAL);
+            writeCommon(out, entry);
+        } else {
+            throw new IOException("Unknown entry type: " + entry.getType());
+        }
+    }
+
+
+    /**
+     * Writes the title, date and description every entry has.
+     * @param out   The output to write to.
+     * @param entry The entry to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeCommon(DataOutputStream out, Entry entry) throws IOException {
+        writeString(out, entry.getTitle());
+        writeEpochDay(out, entry.getDate());
+        writeString(out, entry.getDescription());
+    }
+
+
+    /**
+     * Writes a date as its zigzag-encoded epoch day, so dates before 1970 stay short.
+     * @param out  The output to write to.
+     * @param date The date to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeEpochDay(DataOutputStream out, LocalDate date) throws IOException {
+        long epochDay = date.toEpochDay();
+        writeVarLong(out, (epochDay << 1) ^ (epochDay >> 63));
+    }
+
+
+    /**
+     * Writes a non-negative int in 7-bit groups, low group first.
+     * @param out   The output to write to.
+     * @param value The value to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Writes a long in 7-bit groups, low group first.
+     * @param out   The output to write to.
+     * @param value The value to write, treated as unsigned.
+     * @throws IOException if writing fails.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+
+    /**
+     * Writes an inline string as its UTF-8 length plus one (0 for null) and its bytes.
+     * @param out   The output to write to.
+     * @param value The string to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length + 1);
+            out.write(bytes);
+        }
+    }
+
+
+    /**
+     * Writes a time of day as its nanosecond of day plus one, or 0 for null.
+     * @param out  The output to write to.
+     * @param time The time to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeTime(DataOutputStream out, LocalTime time) throws IOException {
+        writeVarLong(out, time != null ? time.toNanoOfDay() + 1 : 0);
+    }
+
+
+    /**
+     * A calendar's row in the snapshot index.
+     */
+    private static class CalendarInfo {
+
+        /** Registry handle of the calendar. */
+        private final int handle;
+
+        /** {@link #FLAG_PUBLIC} and {@link #FLAG_FAMILY} bits. */
+        private final int flags;
+
+        /** Passcode of a family calendar, 0 otherwise. */
+        private final int passcode;
+
+        /** Name of the calendar. */
+        private final String name;
+
+        /** Username of the owner, or null. */
+        private final String owner;
+
+        /** Number of entries in the block. */
+        private final int entryCount;
+
+        /** Earliest entry date, or null if there are no entries. */
+        private final LocalDate firstDate;
+
+        /** Latest entry date, or null if there are no entries. */
+        private final LocalDate lastDate;
+
+        /** Position of the entry block in the file. */
+        private final int offset;
+
+        /** Length of the entry block in bytes. */
+        private final int length;
+
+
+        /**
+         * Constructs a row from its fields.
+         * @param handle     Registry handle of the calendar.
+         * @param flags      Visibility and kind bits.
+         * @param passcode   Passcode of a family calendar, 0 otherwise.
+         * @param name       Name of the calendar.
+         * @param owner      Username of the owner, or null.
+         * @param entryCount Number of entries in the block.
+         * @param firstDate  Earliest entry date, or null.
+         * @param lastDate   Latest entry date, or null.
+         * @param offset     Position of the entry block.
+         * @param length     Length of the entry block.
+         */
+        private CalendarInfo(int handle, int flags, int passcode, String name, String owner, int entryCount,
+                             LocalDate firstDate, LocalDate lastDate, int offset, int length) {
+            this.handle = handle;
+            this.flags = flags;
+            this.passcode = passcode;
+            this.name = name;
+            this.owner = owner;
+            this.entryCount = entryCount;
+            this.firstDate = firstDate;
+            this.lastDate = lastDate;
+            this.offset = offset;
+            this.length = length;
+        }
+
+
+        /**
+         * Constructs the row of a calendar whose block was just written.
+         * @param calendar The calendar.
+         * @param offset   Position of its entry block.
+         * @param length   Length of its entry block.
+         */
+        private CalendarInfo(CalendarObject calendar, int offset, int length) {
+            this(calendar.getHandle(),
+                 (calendar.isPublic() ? FLAG_PUBLIC : 0) | (calendar instanceof FamilyCalendar ? FLAG_FAMILY : 0),
+                 calendar instanceof FamilyCalendar family ? family.getPasscode() : 0,
+                 calendar.getCalendarName(), calendar.getOwner(), calendar.getEntryCount(),
+                 calendar.getFirstEntryDate(), calendar.getLastEntryDate(), offset, length);
+        }
+    }
+
+
+    /**
+     * Assigns dictionary positions to repeated strings as they are written.
+     */
+    private static class Dictionary {
+
+        /** Strings in the order they were first seen. */
+        private final ArrayList<String> strings = new ArrayList<>();
+
+        /** Position plus one of each string in {@code strings}. */
+        private final HashMap<String, Integer> refs = new HashMap<>();
+
+
+        /**
+         * Constructs a dictionary starting with the strings of an earlier one, at the same positions.
+         * @param seed The earlier dictionary.
+         */
+        private Dictionary(String[] seed) {
+            for (String value : seed) {
+                strings.add(value);
+                refs.putIfAbsent(value, strings.size());
+            }
+        }
+
+
+        /**
+         * Returns the reference to a string, adding it to the dictionary if new.
+         * @param value The string.
+         * @return The string's position plus one, or 0 for null.
+         */
+        private int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                strings.add(value);
+                ref = strings.size();
+                refs.put(value, ref);
+            }
+            return ref;
+        }
+    }
+
+
+    /**
+     * Decodes snapshot fields straight from a mapped buffer.
+     */
+    private static class Reader {
+
+        /** The mapped snapshot, positioned at the next field. */
+        private final ByteBuffer buffer;
+
+        /** The dictionary of repeated strings. */
+        private final String[] dictionary;
+
+        /** Reusable buffer for string bytes. */
+        private byte[] scratch = new byte[256];
+
+
+        /**
+         * Wraps a mapped snapshot.
+         * @param buffer     The mapped snapshot, positioned where reading starts.
+         * @param dictionary The dictionary of repeated strings.
+         */
+        private Reader(ByteBuffer buffer, String[] dictionary) {
+            this.buffer = buffer;
+            this.dictionary = dictionary;
+        }
+
+
+        /**
+         * Reads an account.
+         * @return The account.
+         */
+        private Account readAccount() {
+            Account account = new Account(readRef(), readString());
+            account.setIsActive(buffer.get() != 0);
+            int ownedCount = readVarInt();
+            for (int i = 0; i < ownedCount; i++) {
+                account.addOwnedCalendar(readString());
+            }
+            return account;
+        }
+
+
+        /**
+         * Reads a calendar's row of the index.
+         * @return The row.
+         */
+        private CalendarInfo readCalendarInfo() {
+            int handle = readVarInt();
+            int flags = buffer.get();
+            int passcode = (flags & FLAG_FAMILY) != 0 ? buffer.getInt() : 0;
+            String name = readString();
+            String owner = readRef();
+            int entryCount = readVarInt();
+            LocalDate firstDate = entryCount > 0 ? readEpochDay() : null;
+            LocalDate lastDate = entryCount > 0 ? readEpochDay() : null;
+            return new CalendarInfo(handle, flags, passcode, name, owner, entryCount,
+                                    firstDate, lastDate, readVarInt(), readVarInt());
+        }
+
+
+        /**
+         * Reads an entry after its id.
+         * @return The entry, without an id.
+         */
+        private Entry readEntry() {
+            byte type = buffer.get();
+            String title = readString();
+            LocalDate date = readEpochDay();
+            String description = readString();
+            switch (type) {
+                case StorageCodec.EVENT:
+                    return new Event(title, date, description, readString(), readRef(), readTime(), readTime());
+                case StorageCodec.MEETING:
+                    String modality = readRef();
+                    String venue = readString();
+                    String link = readString();
+                    return new Meeting(title, date, readTime(), readTime(), description, modality, venue, link);
+                case StorageCodec.TASK:
+                    return new Task(title, date, description, readRef(), readRef(), readRef(), readRef());
+                case StorageCodec.JOURNAL:
+                    return new Journal(title, date, description);
+                default:
+                    throw new IllegalStateException("Unknown entry type tag: " + type);
+            }
+        }
+
+
+        /**
+         * Reads a zigzag-encoded epoch day.
+         * @return The date.
+         */
+        private LocalDate readEpochDay() {
+            long zigzag = readVarLong();
+            return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+
+
+        /**
+         * Reads a variable-length int.
+         * @return The value.
+         */
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+
+        /**
+         * Reads a variable-length long.
+         * @return The value.
+         */
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+
+        /**
+         * Reads an inline string.
+         * @return The string, or null if null was written.
+         */
+        private String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+
+        /**
+         * Reads a reference into the dictionary.
+         * @return The referenced string, or null for the null reference.
+         */
+        private String readRef() {
+            int ref = readVarInt();
+            return ref != 0 ? dictionary[ref - 1] : null;
+        }
+
+
+        /**
+         * Reads a time of day.
+         * @return The time, or null if null was written.
+         */
+        private LocalTime readTime() {
+            long value = readVarLong();
+            return value != 0 ? LocalTime.ofNanoOfDay(value - 1) : null;
+        }
+    }
+}
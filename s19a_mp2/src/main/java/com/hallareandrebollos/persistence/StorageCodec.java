@@ -0,0 +1,258 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.hallareandrebollos.models.Account;
+import com.hallareandrebollos.models.CalendarObject;
+import com.hallareandrebollos.models.CalendarRegistry;
+import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.Event;
+import com.hallareandrebollos.models.FamilyCalendar;
+import com.hallareandrebollos.models.Journal;
+import com.hallareandrebollos.models.Meeting;
+import com.hallareandrebollos.models.Task;
+
+
+/**
+ * Reads and writes accounts, calendars and entries in the binary form of the
+ * mutation log records. Strings are written as a UTF-8 byte length followed by
+ * the bytes, with -1 standing for null, so descriptions are not limited to the
+ * 64 KB of {@link DataOutput#writeUTF}. The snapshot uses the more compact layout
+ * of {@link Snapshot} but shares the entry type tags.
+ */
+final class StorageCodec {
+
+    /** Type tag of an {@link Event}. */
+    static final byte EVENT = 0;
+
+    /** Type tag of a {@link Meeting}. */
+    static final byte MEETING = 1;
+
+    /** Type tag of a {@link Task}. */
+    static final byte TASK = 2;
+
+    /** Type tag of a {@link Journal}. */
+    static final byte JOURNAL = 3;
+
+
+    /**
+     * Not instantiable.
+     */
+    private StorageCodec() {
+    }
+
+
+    /**
+     * Writes a string that may be null.
+     * @param out   The output to write to.
+     * @param value The string to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     * @param in The input to read from.
+     * @return The string, or null if null was written.
+     * @throws IOException if reading fails.
+     */
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Writes a time of day that may be null.
+     * @param out  The output to write to.
+     * @param time The time to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeTime(DataOutput out, LocalTime time) throws IOException {
+        out.writeLong(time != null ? time.toNanoOfDay() : -1);
+    }
+
+
+    /**
+     * Reads a time of day written by {@link #writeTime}.
+     * @param in The input to read from.
+     * @return The time, or null if null was written.
+     * @throws IOException if reading fails.
+     */
+    static LocalTime readTime(DataInput in) throws IOException {
+        long nanos = in.readLong();
+        return nanos >= 0 ? LocalTime.ofNanoOfDay(nanos) : null;
+    }
+
+
+    /**
+     * Writes an account with its owned calendar names.
+     * @param out     The output to write to.
+     * @param account The account to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeAccount(DataOutput out, Account account) throws IOException {
+        writeString(out, account.getUsername());
+        writeString(out, account.getPassword());
+        out.writeBoolean(account.getIsActive());
+        out.writeInt(account.getOwnedCalendars().size());
+        for (String calendarName : account.getOwnedCalendars()) {
+            writeString(out, calendarName);
+        }
+    }
+
+
+    /**
+     * Reads an account written by {@link #writeAccount}.
+     * @param in The input to read from.
+     * @return The account.
+     * @throws IOException if reading fails.
+     */
+    static Account readAccount(DataInput in) throws IOException {
+        Account account = new Account(readString(in), readString(in));
+        account.setIsActive(in.readBoolean());
+        int ownedCount = in.readInt();
+        for (int i = 0; i < ownedCount; i++) {
+            account.addOwnedCalendar(readString(in));
+        }
+        return account;
+    }
+
+
+    /**
+     * Writes the handle, kind, name, visibility and owner of a calendar, without its entries.
+     * @param out      The output to write to.
+     * @param calendar The calendar to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeCalendarHeader(DataOutput out, CalendarObject calendar) throws IOException {
+        out.writeInt(calendar.getHandle());
+        boolean isFamily = calendar instanceof FamilyCalendar;
+        out.writeBoolean(isFamily);
+        out.writeInt(isFamily ? ((FamilyCalendar) calendar).getPasscode() : 0);
+        writeString(out, calendar.getCalendarName());
+        out.writeBoolean(calendar.isPublic());
+        writeString(out, calendar.getOwner());
+    }
+
+
+    /**
+     * Reads a calendar written by {@link #writeCalendarHeader} and registers it
+     * under its saved handle.
+     * @param in       The input to read from.
+     * @param registry The registry to add the calendar to.
+     * @return The calendar, or null if its handle or name is already taken.
+     * @throws IOException if reading fails.
+     */
+    static CalendarObject readCalendarHeader(DataInput in, CalendarRegistry registry) throws IOException {
+        int handle = in.readInt();
+        boolean isFamily = in.readBoolean();
+        int passcode = in.readInt();
+        String calendarName = readString(in);
+        boolean isPublic = in.readBoolean();
+        String owner = readString(in);
+        CalendarObject calendar = isFamily
+            ? new FamilyCalendar(passcode, calendarName, isPublic)
+            : new CalendarObject(calendarName, isPublic);
+        return registry.restore(calendar, owner, handle) ? calendar : null;
+    }
+
+
+    /**
+     * Writes an entry with its type tag. The entry id is not included.
+     * @param out   The output to write to.
+     * @param entry The entry to write.
+     * @throws IOException if writing fails or the entry type is unknown.
+     */
+    static void writeEntry(DataOutput out, Entry entry) throws IOException {
+        if (entry instanceof Event event) {
+            out.writeByte(EVENT);
+            writeCommon(out, entry);
+            writeString(out, event.getVenue());
+            writeString(out, event.getOrganizer());
+            writeTime(out, event.getStartTime());
+            writeTime(out, event.getEndTime());
+        } else if (entry instanceof Meeting meeting) {
+            out.writeByte(MEETING);
+            writeCommon(out, entry);
+            writeString(out, meeting.getModality());
+            writeString(out, meeting.getVenue());
+            writeString(out, meeting.getLink());
+            writeTime(out, meeting.getStartTime());
+            writeTime(out, meeting.getEndTime());
+        } else if (entry instanceof Task task) {
+            out.writeByte(TASK);
+            writeCommon(out, entry);
+            writeString(out, task.getPriority());
+            writeString(out, task.getStatus());
+            writeString(out, task.getCreatedBy());
+            writeString(out, task.getFinishedBy());
+        } else if (entry instanceof Journal) {
+            out.writeByte(JOURNAL);
+            writeCommon(out, entry);
+        } else {
+            throw new IOException("Unknown entry type: " + entry.getType());
+        }
+    }
+
+
+    /**
+     * Reads an entry written by {@link #writeEntry}.
+     * @param in The input to read from.
+     * @return The entry, without an id.
+     * @throws IOException if reading fails or the type tag is unknown.
+     */
+    static Entry readEntry(DataInput in) throws IOException {
+        byte type = in.readByte();
+        String title = readString(in);
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        String description = readString(in);
+        switch (type) {
+            case EVENT:
+                return new Event(title, date, description, readString(in), readString(in), readTime(in), readTime(in));
+            case MEETING:
+                String modality = readString(in);
+                String venue = readString(in);
+                String link = readString(in);
+                return new Meeting(title, date, readTime(in), readTime(in), description, modality, venue, link);
+            case TASK:
+                return new Task(title, date, description, readString(in), readString(in), readString(in), readString(in));
+            case JOURNAL:
+                return new Journal(title, date, description);
+            default:
+                throw new IOException("Unknown entry type tag: " + type);
+        }
+    }
+
+
+    /**
+     * Writes the fields every entry has.
+     * @param out   The output to write to.
+     * @param entry The entry to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeCommon(DataOutput out, Entry entry) throws IOException {
+        writeString(out, entry.getTitle());
+        out.writeLong(entry.getDate().toEpochDay());
+        writeString(out, entry.getDescription());
+    }
+}
@@ -0,0 +1,260 @@
+package com.hallareandrebollos.persistence;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.function.BinaryOperator;
+
+
+/**
+ * Writes log records on a background thread, so callers such as Swing event
+ * handlers never wait for the disk. Records are written in the order they were
+ * queued, except that the entry records of one calendar still waiting in the
+ * queue are gathered into a single batch, where a later record of an entry is
+ * merged into the earlier one. Everything taken from the queue at once is
+ * appended to the log in one write.
+ *
+ * The queue is bounded: a caller that finds it full waits until the writer has
+ * taken the queued records.
+ */
+final class WriteBehindQueue {
+
+    /** The log the records are appended to. Only used by the writer thread while it runs. */
+    private final MutationLog log;
+
+    /** Merges a queued entry record with a newer one of the same entry; null drops both. */
+    private final BinaryOperator<byte[]> merge;
+
+    /** Number of queued items above which callers wait. */
+    private final int capacity;
+
+    /** Queued items in order: single records and calendar batches. */
+    private final ArrayDeque<Object> pending;
+
+    /** Calendar batches still in the queue, by calendar handle. */
+    private final HashMap<Integer, LinkedHashMap<Long, byte[]>> openBatches;
+
+    /** The background thread appending to the log. */
+    private final Thread writer;
+
+    /** Whether the writer is appending records it took from the queue. */
+    private boolean writing;
+
+    /** Whether {@link #close} was called. */
+    private boolean closed;
+
+    /** Number of writes done. */
+    private long flushCount;
+
+    /** Total time spent in writes, in nanoseconds. */
+    private long totalFlushNanos;
+
+    /** Longest write, in nanoseconds. */
+    private long maxFlushNanos;
+
+
+    /**
+     * Starts a queue writing into the given log.
+     * @param log      The log to append to.
+     * @param merge    Merges a queued entry record with a newer one of the same entry,
+     *                 returning the record to keep or null to drop both.
+     * @param capacity Number of queued items above which callers wait.
+     */
+    WriteBehindQueue(MutationLog log, BinaryOperator<byte[]> merge, int capacity) {
+        this.log = log;
+        this.merge = merge;
+        this.capacity = capacity;
+        this.pending = new ArrayDeque<>();
+        this.openBatches = new HashMap<>();
+        this.writer = new Thread(this::run, "data-store-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+
+    /**
+     * Queues a record that is written in order with the others.
+     * @param record The record bytes.
+     */
+    synchronized void add(byte[] record) {
+        awaitCapacity();
+        this.pending.addLast(record);
+        notifyAll();
+    }
+
+
+    /**
+     * Queues a record about one entry of a calendar, merging it into a record of
+     * the same entry that is still queued.
+     * @param handle  The calendar handle.
+     * @param entryId The entry id.
+     * @param record  The record bytes.
+     */
+    synchronized void addEntry(int handle, long entryId, byte[] record) {
+        LinkedHashMap<Long, byte[]> batch = this.openBatches.get(handle);
+        if (batch == null) {
+            awaitCapacity();
+            batch = new LinkedHashMap<>();
+            this.pending.addLast(batch);
+            this.openBatches.put(handle, batch);
+        }
+        byte[] queued = batch.get(entryId);
+        byte[] merged = queued != null ? this.merge.apply(queued, record) : record;
+        if (merged != null) {
+            batch.put(entryId, merged);
+        } else {
+            batch.remove(entryId);
+        }
+        notifyAll();
+    }
+
+
+    /**
+     * Stops merging further records into the queued batch of a calendar, so
+     * records queued after this one are written after it.
+     * @param handle The calendar handle.
+     */
+    synchronized void closeBatch(int handle) {
+        this.openBatches.remove(handle);
+    }
+
+
+    /**
+     * Waits until every queued record has been written.
+     */
+    synchronized void flush() {
+        boolean interrupted = false;
+        while (!this.pending.isEmpty() || this.writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Writes every queued record and stops the writer thread.
+     */
+    void close() {
+        synchronized (this) {
+            this.closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (this.writer.isAlive()) {
+            try {
+                this.writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Returns the number of queued items, counting each calendar batch once.
+     * @return The queue depth.
+     */
+    synchronized int getDepth() {
+        return this.pending.size();
+    }
+
+
+    /**
+     * Returns the average time a write took.
+     * @return The average write time in milliseconds, or 0 if nothing was written.
+     */
+    synchronized double getAverageFlushMillis() {
+        return this.flushCount > 0 ? this.totalFlushNanos / 1e6 / this.flushCount : 0;
+    }
+
+
+    /**
+     * Returns the longest time a write took.
+     * @return The longest write time in milliseconds.
+     */
+    synchronized double getMaxFlushMillis() {
+        return this.maxFlushNanos / 1e6;
+    }
+
+
+    /**
+     * Waits while the queue is full. The writer empties the whole queue at once,
+     * so this only waits while a large burst is being written.
+     */
+    private void awaitCapacity() {
+        boolean interrupted = false;
+        while (this.pending.size() >= this.capacity && !this.closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Takes everything queued and appends it to the log, until closed with an empty queue.
+     */
+    @SuppressWarnings("unchecked")
+    private void run() {
+        while (true) {
+            ArrayList<byte[]> records = new ArrayList<>();
+            synchronized (this) {
+                while (this.pending.isEmpty() && !this.closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Only close() stops the writer.
+                    }
+                }
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+                for (Object item : this.pending) {
+                    if (item instanceof byte[] record) {
+                        records.add(record);
+                    } else {
+                        records.addAll(((LinkedHashMap<Long, byte[]>) item).values());
+                    }
+                }
+                this.pending.clear();
+                this.openBatches.clear();
+                this.writing = true;
+                notifyAll();
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (!records.isEmpty()) {
+                    this.log.append(records);
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to save changes: " + e.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            synchronized (this) {
+                this.writing = false;
+                this.flushCount++;
+                this.totalFlushNanos += elapsed;
+                this.maxFlushNanos = Math.max(this.maxFlushNanos, elapsed);
+                notifyAll();
+            }
+        }
+    }
+}
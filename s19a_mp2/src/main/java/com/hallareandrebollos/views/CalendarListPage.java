@@ -7,9 +7,12 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridBagLayout;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -19,6 +22,7 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JViewport;
 import javax.swing.SwingConstants;
 
 import com.hallareandrebollos.controls.LogicController;
@@ -39,6 +43,24 @@ public class CalendarListPage extends JPanel {
     /** Manages navigation between GUI pages. */
     private Router router;
 
+    /** Number of public calendar tiles fetched per page. */
+    private static final int PUBLIC_PAGE_SIZE = 20;
+
+    /** Width of a public calendar tile, in pixels. */
+    private static final int PUBLIC_TILE_WIDTH = 75;
+
+    /** Height of a public calendar tile, in pixels; 3:4 with the width. */
+    private static final int PUBLIC_TILE_HEIGHT = 100;
+
+    /** Gap after each public calendar tile, in pixels. */
+    private static final int PUBLIC_TILE_GAP = 10;
+
+    /** Space one public calendar tile takes in the list, including its gap. */
+    private static final int PUBLIC_TILE_STRIDE = PUBLIC_TILE_WIDTH + PUBLIC_TILE_GAP;
+
+    /** Number of public calendar tiles currently shown. */
+    private int loadedPublicCount;
+
 
     /**
      * Constructs a CalendarListPage with the given router and logic controller.
@@ -138,23 +160,19 @@ public class CalendarListPage extends JPanel {
      */
     private JScrollPane createPublicCalendarList(Router router) {
         Theme theme = logicController.getCurrentTheme();
-        ArrayList<CalendarObject> publicCalendars = logicController.getPublicCalendarObjects();
         JPanel listPanel = new JPanel();
         listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.X_AXIS));
         listPanel.setOpaque(false);
         listPanel.setBackground(theme.getBackgroundColor());
+        this.loadedPublicCount = 0;
 
-        if (publicCalendars.isEmpty()) {
+        if (logicController.getPublicCalendarCount() == 0) {
             JLabel emptyLabel = new JLabel("No Calendars.");
             emptyLabel.setFont(theme.getRegularFont());
             emptyLabel.setForeground(theme.getSubtitleColor());
             listPanel.add(emptyLabel);
         } else {
-            for (CalendarObject cal : publicCalendars) {
-                JPanel item = createPublicCalendarTile(cal, router);
-                listPanel.add(item);
-                listPanel.add(Box.createHorizontalStrut(10));
-            }
+            appendPublicCalendarPage(listPanel, router);
         }
 
         JScrollPane scrollPane = new JScrollPane(listPanel);
@@ -166,10 +184,62 @@ public class CalendarListPage extends JPanel {
         scrollPane.setBackground(theme.getBackgroundColor());
         scrollPane.getViewport().setBackground(theme.getBackgroundColor());
         scrollPane.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
+
+        // Fetch more tiles once the user scrolls near the end of the loaded ones, and when the
+        // list is first laid out or resized, in case the loaded tiles do not fill it.
+        scrollPane.getHorizontalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                fillPublicCalendarList(scrollPane, listPanel, router);
+            }
+        });
+        scrollPane.getViewport().addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                fillPublicCalendarList(scrollPane, listPanel, router);
+            }
+        });
         return scrollPane;
     }
 
 
+    /**
+     * Appends pages of public calendar tiles until the loaded tiles reach at least
+     * one tile past the visible end of the list, or every calendar is loaded.
+     * @param scrollPane The scroll pane around the list panel.
+     * @param listPanel  The panel holding the public calendar tiles.
+     * @param router     The router used to navigate on click.
+     */
+    private void fillPublicCalendarList(JScrollPane scrollPane, JPanel listPanel, Router router) {
+        JViewport viewport = scrollPane.getViewport();
+        int visibleEnd = viewport.getViewPosition().x + viewport.getExtentSize().width;
+        boolean more = this.loadedPublicCount < logicController.getPublicCalendarCount();
+        while (more && viewport.getWidth() > 0
+                && listPanel.getPreferredSize().width - PUBLIC_TILE_STRIDE <= visibleEnd) {
+            int before = this.loadedPublicCount;
+            appendPublicCalendarPage(listPanel, router);
+            more = this.loadedPublicCount > before
+                    && this.loadedPublicCount < logicController.getPublicCalendarCount();
+        }
+    }
+
+
+    /**
+     * Appends the next page of public calendar tiles to the list panel.
+     * @param listPanel The panel holding the public calendar tiles.
+     * @param router    The router used to navigate on click.
+     */
+    private void appendPublicCalendarPage(JPanel listPanel, Router router) {
+        List<CalendarObject> page = logicController.getPublicCalendarPage(this.loadedPublicCount, PUBLIC_PAGE_SIZE);
+        for (CalendarObject cal : page) {
+            JPanel item = createPublicCalendarTile(cal, router);
+            listPanel.add(item);
+            listPanel.add(Box.createHorizontalStrut(PUBLIC_TILE_GAP));
+        }
+        this.loadedPublicCount += page.size();
+        listPanel.revalidate();
+    }
+
+
     /**
      * Creates a single tile representing a public calendar.
      * @param cal    The CalendarObject to display.
@@ -181,8 +251,8 @@ public class CalendarListPage extends JPanel {
         
         JPanel tile = new JPanel();
         tile.setLayout(new GridBagLayout());
-        tile.setPreferredSize(new Dimension(75, 100)); // 3:4 aspect ratio
-        tile.setMaximumSize(new Dimension(75, 100));
+        tile.setPreferredSize(new Dimension(PUBLIC_TILE_WIDTH, PUBLIC_TILE_HEIGHT));
+        tile.setMaximumSize(new Dimension(PUBLIC_TILE_WIDTH, PUBLIC_TILE_HEIGHT));
         tile.setBorder(BorderFactory.createLineBorder(theme.getBorderColor(), 1));
         tile.setBackground(theme.getPanelColor());
 
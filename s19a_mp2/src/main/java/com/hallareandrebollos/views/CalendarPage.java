@@ -3,31 +3,42 @@ package com.hallareandrebollos.views;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
-import java.awt.Font;
 import java.awt.GridLayout;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DateFormatSymbols;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
-import javax.swing.SwingConstants;
-import javax.swing.border.EmptyBorder;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.hallareandrebollos.controls.LogicController;
 import com.hallareandrebollos.controls.Router;
+import com.hallareandrebollos.models.CalendarObject;
+import com.hallareandrebollos.models.Entry;
 import com.hallareandrebollos.models.Theme;
-import com.hallareandrebollos.widgets.calendarTile;
+import com.hallareandrebollos.persistence.IcsReader;
+import com.hallareandrebollos.persistence.IcsWriter;
+import com.hallareandrebollos.widgets.monthGrid;
 
 
 /**
@@ -36,11 +47,20 @@ import com.hallareandrebollos.widgets.calendarTile;
  */
 public class CalendarPage extends JPanel {
 
+    /** Number of imported entries added to the calendar at a time. */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    /** Router used for navigation and passed to the day tiles. */
+    private final Router router;
+
     /** Handles calendar logic such as selected date and entry retrieval. */
     private final LogicController logic;
 
-    /** Panel that displays the grid of day tiles. */
-    private JPanel calendarGrid;
+    /** Component that paints the days of the selected month. */
+    private monthGrid calendarGrid;
+
+    /** Theme the components were built with, so a theme change rebuilds them. */
+    private Theme.ThemeType builtTheme;
 
     /** Button that displays and updates the selected month and year. */
     private JButton datePickerButton;
@@ -52,15 +72,45 @@ public class CalendarPage extends JPanel {
      * @param logic LogicController for date and entry management
      */
     public CalendarPage(Router router, LogicController logic) {
+        this.router = router;
         this.logic = logic;
         setLayout(new BorderLayout());
-        applyTheme();
         initializeDate();
+        buildComponents();
+        drawCalendar(router);
+    }
+
+
+    /**
+     * Shows another calendar and month on this page. The existing components are
+     * updated in place; they are only rebuilt if the theme changed since they were built.
+     * @param calendar The calendar to show.
+     * @param yearMonth The month to show.
+     */
+    public void bind(CalendarObject calendar, YearMonth yearMonth) {
+        logic.setCurrentCalendar(calendar);
+        logic.setSelectedMonth(yearMonth.getMonthValue());
+        logic.setSelectedYear(yearMonth.getYear());
+        if (logic.getCurrentTheme().getCurrentTheme() != this.builtTheme) {
+            removeAll();
+            buildComponents();
+            revalidate();
+        }
+        updateDatePickerLabel();
+        drawCalendar(router);
+    }
+
+
+    /**
+     * Builds the toolbars and the calendar grid with the current theme.
+     */
+    private void buildComponents() {
+        this.builtTheme = logic.getCurrentTheme().getCurrentTheme();
+        applyTheme();
         add(createTopPanel(router), BorderLayout.NORTH);
         this.calendarGrid = createCalendarGrid();
         add(this.calendarGrid, BorderLayout.CENTER);
         add(createBottomPanel(router), BorderLayout.SOUTH);
-        drawCalendar(router);
     }
 
     /**
@@ -131,17 +181,11 @@ public class CalendarPage extends JPanel {
 
 
     /**
-     * Creates the calendar grid panel that displays days of the month.
-     * @return A JPanel arranged in a 7-column grid layout
+     * Creates the calendar grid that displays days of the month.
+     * @return A monthGrid painting the weekday headers and day cells
      */
-    private JPanel createCalendarGrid() {
-        Theme theme = logic.getCurrentTheme();
-        
-        JPanel calendarGrid = new JPanel();
-        calendarGrid.setLayout(new GridLayout(0, 7));
-        calendarGrid.setBackground(theme.getPanelColor());
-        calendarGrid.setBorder(new EmptyBorder(10, 10, 10, 10));
-        return calendarGrid;
+    private monthGrid createCalendarGrid() {
+        return new monthGrid(logic, router);
     }
 
     
@@ -206,7 +250,23 @@ public class CalendarPage extends JPanel {
             JOptionPane.showMessageDialog(this, "Red = Task Entry\nBlue = Event Entry\nYellow = Meeting Entry\nGreen = Journal Entry", "Help", JOptionPane.INFORMATION_MESSAGE);
         });
 
+        JButton importButton = new JButton("Import .ics");
+        importButton.setFont(theme.getRegularFont());
+        importButton.setFocusPainted(false);
+        importButton.setBackground(theme.getSecondaryButtonColor());
+        importButton.setForeground(theme.getButtonTextColor());
+        importButton.addActionListener(e -> importIcs(router, importButton));
+
+        JButton exportButton = new JButton("Export .ics");
+        exportButton.setFont(theme.getRegularFont());
+        exportButton.setFocusPainted(false);
+        exportButton.setBackground(theme.getSecondaryButtonColor());
+        exportButton.setForeground(theme.getButtonTextColor());
+        exportButton.addActionListener(e -> exportIcs(exportButton));
+
         bottomPanel.add(addInfoButton);
+        bottomPanel.add(importButton);
+        bottomPanel.add(exportButton);
         bottomPanel.add(deleteCalendarButton);
         bottomPanel.add(weeklyViewButton);
         bottomPanel.add(backButton);
@@ -214,6 +274,121 @@ public class CalendarPage extends JPanel {
     }
 
 
+    /**
+     * Imports the entries of an iCalendar file chosen by the user into the current calendar.
+     * The file is read in the background and its entries are added in batches, so large
+     * files neither block the window nor sit in memory all at once.
+     * @param router Router used to redraw the calendar once the import is done
+     * @param button The import button, disabled while importing
+     */
+    private void importIcs(Router router, JButton button) {
+        CalendarObject calendar = logic.getCurrentCalendarObject();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("iCalendar files (*.ics)", "ics"));
+        if (calendar == null || chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        String username = logic.getCurrentAccount() != null ? logic.getCurrentAccount().getUsername() : null;
+        button.setEnabled(false);
+
+        new SwingWorker<Integer, List<Entry>>() {
+            /** Number of entries added so far; only used on the event dispatch thread. */
+            private int added;
+
+            @Override
+            protected Integer doInBackground() throws IOException {
+                try (IcsReader reader = new IcsReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), username)) {
+                    ArrayList<Entry> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                    Entry entry;
+                    while ((entry = reader.next()) != null) {
+                        batch.add(entry);
+                        if (batch.size() == IMPORT_BATCH_SIZE) {
+                            publish(batch);
+                            batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        publish(batch);
+                    }
+                    return reader.getSkippedCount();
+                }
+            }
+
+            @Override
+            protected void process(List<List<Entry>> batches) {
+                for (List<Entry> batch : batches) {
+                    added += logic.addEntriesToCalendarObject(calendar, batch);
+                }
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                drawCalendar(router);
+                try {
+                    int skipped = get();
+                    JOptionPane.showMessageDialog(CalendarPage.this, "Imported " + added + " entries."
+                        + (skipped > 0 ? "\nSkipped " + skipped + " items without a readable date." : ""),
+                        "Import", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(CalendarPage.this, "Imported " + added
+                        + " entries before the import failed:\n" + (e.getCause() != null ? e.getCause() : e).getMessage(),
+                        "Import Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+
+    /**
+     * Exports the entries of the current calendar to an iCalendar file chosen by the user.
+     * The file is written in the background from a copy of the entry list.
+     * @param button The export button, disabled while exporting
+     */
+    private void exportIcs(JButton button) {
+        CalendarObject calendar = logic.getCurrentCalendarObject();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("iCalendar files (*.ics)", "ics"));
+        if (calendar == null) {
+            return;
+        }
+        chooser.setSelectedFile(new File(calendar.getCalendarName() + ".ics"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        String calendarName = calendar.getCalendarName();
+        ArrayList<Entry> entries = new ArrayList<>(calendar.getEntries());
+        button.setEnabled(false);
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                try (IcsWriter writer = new IcsWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), calendarName)) {
+                    for (Entry entry : entries) {
+                        writer.write(entry);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(CalendarPage.this, "Exported " + entries.size() + " entries.",
+                        "Export", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(CalendarPage.this, "Export failed:\n" + (e.getCause() != null ? e.getCause() : e).getMessage(),
+                        "Export Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+
     /**
      * Sets up navigation actions for month and year navigation buttons.
      * @param router Router used to trigger calendar redraw
@@ -301,63 +476,7 @@ public class CalendarPage extends JPanel {
      * @param router Router used for interaction in calendar tiles
      */
     private void drawCalendar(Router router) {
-        Theme theme = logic.getCurrentTheme();
-        calendarGrid.removeAll();
-
-        DayOfWeek[] weekDays = {
-            DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
-            DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY
-        };
-
-        for (DayOfWeek day : weekDays) {
-            JLabel label = new JLabel(day.getDisplayName(TextStyle.FULL, Locale.ENGLISH), SwingConstants.CENTER);
-            label.setFont(new Font("SansSerif", Font.BOLD, 13));
-            label.setOpaque(true);
-            label.setBackground(theme.getBorderColor());
-            label.setForeground(theme.getTextColor());
-            label.setPreferredSize(new Dimension(0, 24));
-            calendarGrid.add(label);
-        }
-
-        int year = logic.getSelectedYear();
-        int month = logic.getSelectedMonth();
-        YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDate firstOfMonth = yearMonth.atDay(1);
-        int startDay = firstOfMonth.getDayOfWeek().getValue() % 7;
-
-        // Fill Empty Cells Before the First Day of the Month.
-        for (int i = 0; i < startDay; i++) {
-            JButton filler = new JButton();
-            filler.setEnabled(false);
-            filler.setBackground(theme.getSecondaryButtonColor());
-            calendarGrid.add(filler);
-        }
-
-        int daysInMonth = yearMonth.lengthOfMonth();  
-        LocalDate today = LocalDate.now(); 
-
-        // Displays Each Button for Each Day.
-        for (int day = 1; day <= daysInMonth; day++) {
-            calendarTile dayButton = new calendarTile(
-                calendarGrid, day, month, year,
-                day == today.getDayOfMonth() && month == today.getMonthValue() && year == today.getYear(),
-                logic, router
-            );
-
-            calendarGrid.add(dayButton);
-        }
-
-        // Fill remaining cells after last day to complete the week row.
-        int totalCells = startDay + daysInMonth;
-        int remainingCells = (7 - (totalCells % 7)) % 7;
-        for (int i = 0; i < remainingCells; i++) {
-            JButton filler = new JButton();
-            filler.setEnabled(false);
-            filler.setBackground(theme.getSecondaryButtonColor());
-            calendarGrid.add(filler);
-        }
-
-        revalidate();
-        repaint();
+        YearMonth yearMonth = YearMonth.of(logic.getSelectedYear(), logic.getSelectedMonth());
+        calendarGrid.setMonth(yearMonth, logic.getEntriesForMonth(yearMonth));
     }
 }
@@ -32,6 +32,7 @@ import com.hallareandrebollos.models.Journal;
 import com.hallareandrebollos.models.Meeting;
 import com.hallareandrebollos.models.Task;
 import com.hallareandrebollos.models.Theme;
+import com.hallareandrebollos.models.TimedEntry;
 import com.hallareandrebollos.widgets.hhmmSelector;
 import com.hallareandrebollos.widgets.yyyymmddSelector;
 
@@ -791,16 +792,7 @@ public class EntryForm extends JPanel {
                     String calendarName = logic.getCurrentCalendarObject() != null ? logic.getCurrentCalendarObject().getCalendarName() : "";
                     String accountName = logic.getCurrentAccount() != null ? logic.getCurrentAccount().getUsername() : "";
                     boolean isEditingJournal = (this.editingEntry != null && this.editingEntry instanceof Journal);
-                    boolean journalExists = false;
-                    if (!isEditingJournal) {
-                        ArrayList<Entry> entries = logic.getCurrentCalendarObject() != null ? logic.getCurrentCalendarObject().getEntries() : new ArrayList<>();
-                        for (Entry e : entries) {
-                            if (e instanceof Journal && e.getDate().equals(date)) {
-                                journalExists = true;
-                                break;
-                            }
-                        }
-                    }
+                    boolean journalExists = !isEditingJournal && logic.hasJournalOnDate(date);
                     if (!calendarName.equals(accountName)) {
                         JOptionPane.showMessageDialog(this, "Journals can only be created in a calendar named after your account.", "Error", JOptionPane.ERROR_MESSAGE);
                         canProceed = false;
@@ -837,14 +829,18 @@ public class EntryForm extends JPanel {
                     break;
             }
 
-            if (canProceed && newEntry != null) {
+            boolean confirmed = true;
+            if (canProceed && newEntry instanceof TimedEntry timed) {
+                confirmed = confirmDoubleBooking(date, timed.getStartTime(), timed.getEndTime());
+            }
+
+            if (canProceed && newEntry != null && confirmed) {
                 if (this.editingEntry == null) {
-                    logic.getCurrentCalendarObject().addEntry(newEntry);
+                    logic.addEntryToCurrentCalendarObject(newEntry);
                     JOptionPane.showMessageDialog(this, "Entry created!");
                 } else {
-                    // Replace logic: remove old, add new
-                    logic.getCurrentCalendarObject().removeEntry(this.editingEntry);
-                    logic.getCurrentCalendarObject().addEntry(newEntry);
+                    // Replace in place so the entry keeps its id.
+                    logic.editEntryInCurrentCalendarObject(this.editingEntry.getId(), newEntry);
                     JOptionPane.showMessageDialog(this, "Entry updated!");
                 }
                 clearFields();
@@ -855,6 +851,32 @@ public class EntryForm extends JPanel {
         }
     }
 
+
+    /**
+     * Warns about meetings and events overlapping the given time range and asks whether to keep it.
+     * @param date  The date of the new entry.
+     * @param start The start time of the new entry.
+     * @param end   The end time of the new entry.
+     * @return true if nothing overlaps or the user chose to save anyway.
+     */
+    private boolean confirmDoubleBooking(LocalDate date, LocalTime start, LocalTime end) {
+        long editingId = this.editingEntry != null ? this.editingEntry.getId() : -1;
+        ArrayList<Entry> conflicts = logic.getConflictingEntries(date, start, end, editingId);
+        boolean confirmed = true;
+        if (!conflicts.isEmpty()) {
+            StringBuilder message = new StringBuilder("This overlaps with:\n");
+            for (Entry conflict : conflicts) {
+                TimedEntry timed = (TimedEntry) conflict;
+                message.append("- ").append(conflict.getTitle())
+                       .append(" (").append(timed.getStartTime()).append(" - ").append(timed.getEndTime()).append(")\n");
+            }
+            message.append("Save anyway?");
+            int choice = JOptionPane.showConfirmDialog(this, message.toString(), "Double Booking", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            confirmed = choice == JOptionPane.YES_OPTION;
+        }
+        return confirmed;
+    }
+
     
     /**
      * Returns to the calendar view without saving changes.
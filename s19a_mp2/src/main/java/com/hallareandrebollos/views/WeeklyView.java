@@ -6,8 +6,10 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -16,13 +18,15 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.SwingConstants;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 
 import com.hallareandrebollos.controls.LogicController;
 import com.hallareandrebollos.controls.Router;
-import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.CalendarObject;
 import com.hallareandrebollos.models.Theme;
+import com.hallareandrebollos.models.WeekEntries;
 import com.hallareandrebollos.widgets.entryList;
 
 
@@ -49,6 +53,15 @@ public class WeeklyView extends JPanel {
     /** Label displaying the currently viewed week range. */
     private JLabel weekLabel;
 
+    /** Entry lists of the seven days, Sunday first, rebound to each week shown. */
+    private entryList[] dayColumns;
+
+    /** Weeks read ahead of time, by week start, for the calendar in {@link #cachedCalendar}. */
+    private final HashMap<LocalDate, WeekEntries> weekCache = new HashMap<>();
+
+    /** Calendar the cached weeks were read from. */
+    private CalendarObject cachedCalendar;
+
 
     /**
      * Constructs the weekly view with navigation, entry display, and return button.
@@ -133,19 +146,48 @@ public class WeeklyView extends JPanel {
 
     /**
      * Creates the main panel containing horizontally scrollable daily entry lists.
+     * The seven day columns are built here once and rebound to each week shown.
      * @return the JScrollPane wrapping the daily entry panels
      */
     private JScrollPane createMainPanel() {
+        Theme theme = logic.getCurrentTheme();
+
         this.entryListsPanel = new JPanel();
         this.entryListsPanel.setLayout(new BoxLayout(this.entryListsPanel, BoxLayout.X_AXIS));
         this.entryListsPanel.setOpaque(false);
 
+        // Weeks always start on Sunday, so each column keeps its day name.
+        this.dayColumns = new entryList[7];
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = weekStart.plusDays(i);
+            this.dayColumns[i] = new entryList(date, List.of(), router, logic, false);
+
+            JScrollPane entryScrollPane = new JScrollPane(this.dayColumns[i], JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+            entryScrollPane.setPreferredSize(new Dimension(220, 400));
+            
+            TitledBorder titledBorder = BorderFactory.createTitledBorder(
+                BorderFactory.createLineBorder(theme.getBorderColor()), 
+                date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)
+            );
+            titledBorder.setTitleFont(theme.getRegularFont());
+            titledBorder.setTitleColor(theme.getTextColor());
+            entryScrollPane.setBorder(titledBorder);
+            
+            entryScrollPane.getVerticalScrollBar().setUnitIncrement(24);
+            entryScrollPane.setOpaque(false);
+            entryScrollPane.getViewport().setOpaque(false);
+            entryScrollPane.setBackground(theme.getBackgroundColor());
+            entryScrollPane.getViewport().setBackground(theme.getBackgroundColor());
+
+            this.entryListsPanel.add(entryScrollPane);
+        }
+
         this.horizontalScrollPane = new JScrollPane(this.entryListsPanel, JScrollPane.VERTICAL_SCROLLBAR_NEVER, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         this.horizontalScrollPane.setBorder(null);
         this.horizontalScrollPane.getHorizontalScrollBar().setUnitIncrement(24);
         this.horizontalScrollPane.setOpaque(false);
         this.horizontalScrollPane.getViewport().setOpaque(false);
-        this.horizontalScrollPane.setBackground(logic.getCurrentTheme().getBackgroundColor());
+        this.horizontalScrollPane.setBackground(theme.getBackgroundColor());
 
         return this.horizontalScrollPane;
     }
@@ -175,10 +217,11 @@ public class WeeklyView extends JPanel {
 
     /**
      * Updates the entry view and label based on the current weekStart value.
+     * The day columns are rebound to the week's entries, taken from the weeks read
+     * ahead if the calendar has not changed since, and the weeks before and after
+     * are then read ahead in the background.
      */
     public void updateWeekView() {
-        Theme theme = logic.getCurrentTheme();
-        
         LocalDate weekEnd = weekStart.plusDays(6);
         String startStr = weekStart.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " +
                 weekStart.getDayOfMonth() + " (" + weekStart.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + ")";
@@ -186,36 +229,62 @@ public class WeeklyView extends JPanel {
                 weekEnd.getDayOfMonth() + " (" + weekEnd.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + ")";
         weekLabel.setText(startStr + " - " + endStr);
 
-        entryListsPanel.removeAll();
+        CalendarObject calendar = logic.getCurrentCalendarObject();
+        if (calendar != this.cachedCalendar) {
+            this.weekCache.clear();
+            this.cachedCalendar = calendar;
+        }
 
-        // For each day in the week, create an entryList and a cup of joe MINUMULTO AKOOOOOOOOO
+        WeekEntries week = this.weekCache.get(weekStart);
+        if (week == null || calendar == null || week.getVersion() != calendar.getVersion()) {
+            week = logic.getEntriesForWeek(weekStart);
+            this.weekCache.put(weekStart, week);
+        }
+
+        // For each day in the week, rebind its entryList and a cup of joe MINUMULTO AKOOOOOOOOO
         for (int i = 0; i < 7; i++) {
-            LocalDate date = weekStart.plusDays(i);
-            List<Entry> entries = logic.getEntriesForDate(date);
-            entryList list = new entryList(date, entries, router, logic, false);
+            dayColumns[i].bind(weekStart.plusDays(i), week.getEntriesForDay(i));
+        }
 
-            JScrollPane entryScrollPane = new JScrollPane(list, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-            entryScrollPane.setPreferredSize(new Dimension(220, 400));
-            
-            TitledBorder titledBorder = BorderFactory.createTitledBorder(
-                BorderFactory.createLineBorder(theme.getBorderColor()), 
-                date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)
-            );
-            titledBorder.setTitleFont(theme.getRegularFont());
-            titledBorder.setTitleColor(theme.getTextColor());
-            entryScrollPane.setBorder(titledBorder);
-            
-            entryScrollPane.getVerticalScrollBar().setUnitIncrement(24);
-            entryScrollPane.setOpaque(false);
-            entryScrollPane.getViewport().setOpaque(false);
-            entryScrollPane.setBackground(theme.getBackgroundColor());
-            entryScrollPane.getViewport().setBackground(theme.getBackgroundColor());
+        this.weekCache.keySet().removeIf(start -> Math.abs(start.toEpochDay() - weekStart.toEpochDay()) > 7);
+        prefetchWeek(calendar, weekStart.minusWeeks(1));
+        prefetchWeek(calendar, weekStart.plusWeeks(1));
+    }
 
-            entryListsPanel.add(entryScrollPane);
+
+    /**
+     * Reads the entries of a week in the background and keeps them for when that week is shown.
+     * The week is copied under the calendar's lock, so the read never sees a change half made;
+     * it is thrown away if the calendar changes before it finishes.
+     * @param calendar the calendar to read from, or null for none
+     * @param start the first day of the week
+     */
+    private void prefetchWeek(CalendarObject calendar, LocalDate start) {
+        WeekEntries cached = this.weekCache.get(start);
+        if (calendar == null || !calendar.isLoaded()
+                || (cached != null && cached.getVersion() == calendar.getVersion())) {
+            return;
         }
 
-        entryListsPanel.revalidate();
-        entryListsPanel.repaint();
+        new SwingWorker<WeekEntries, Void>() {
+            @Override
+            protected WeekEntries doInBackground() {
+                return calendar.getWeekEntries(start);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    WeekEntries week = get();
+                    if (calendar == cachedCalendar && week.getVersion() == calendar.getVersion()
+                            && Math.abs(start.toEpochDay() - weekStart.toEpochDay()) <= 7) {
+                        weekCache.put(start, week);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    // Not kept; the week is read when shown instead.
+                }
+            }
+        }.execute();
     }
 
 
@@ -2,27 +2,34 @@
 package com.hallareandrebollos.widgets;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Dialog;
 import java.awt.Dimension;
 import java.awt.Frame;
+import java.awt.Rectangle;
 import java.awt.Window;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.TextStyle;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
+import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
@@ -41,11 +48,17 @@ import com.hallareandrebollos.models.Theme;
  */
 public class entryList extends JPanel {
 
+    /** Number of entries above which the entries are shown in a virtualized list instead of tiles. */
+    private static final int VIRTUALIZE_THRESHOLD = 50;
+
+    /** Width of the "..." actions area at the right of each row, in pixels. */
+    private static final int MENU_WIDTH = 40;
+
     /** The date for which entries are being displayed. */
-    private final LocalDate date;
+    private LocalDate date;
     
     /** The list of entries to display. */
-    private final List<Entry> entries;
+    private List<Entry> entries;
 
     /** The application's router to navigate views. */
     private final Router router;
@@ -56,11 +69,26 @@ public class entryList extends JPanel {
     /** Flag that determines whether to close the dialog when adding an entry. */
     private final boolean closeDialogOnAdd;
 
+    /** Label in the header showing the date. */
+    private JLabel headerLabel;
+
+    /** Panel holding the entry tiles. */
+    private JPanel listPanel;
+
+    /** Scroll pane around the entry tiles or the virtualized list. */
+    private JScrollPane listScrollPane;
+
+    /** Virtualized list used for days with many entries, or null until first needed. */
+    private JList<Entry> virtualList;
+
+    /** Entries of the virtualized list, in display order. */
+    private DefaultListModel<Entry> virtualModel;
+
 
     /**
      * Constructs an entryList panel for the given date and list of entries
      * @param date             The date the entries belong to.
-     * @param entries          The list of entries for the date.
+     * @param entries          The entries for the date, in the display order the calendar keeps them in.
      * @param router           The router used for view navigation.
      * @param logicController  The logic controller for entry manipulation.
      * @param closeDialogOnAdd Whether to close the dialog when adding an entry.
@@ -80,6 +108,21 @@ public class entryList extends JPanel {
     }
 
 
+    /**
+     * Shows another date and its entries in this list, keeping the header, footer
+     * and scroll pane and only replacing the entries shown.
+     * @param date    The date the entries belong to.
+     * @param entries The entries for the date, in the display order the calendar keeps them in.
+     */
+    public void bind(LocalDate date, List<Entry> entries) {
+        this.date = date;
+        this.entries = entries;
+        this.headerLabel.setText(headerText());
+        showEntries();
+        this.listScrollPane.getVerticalScrollBar().setValue(0);
+    }
+
+
     /**
      * Creates the header panel that displays the formatted date.
      * @return the header panel.
@@ -91,19 +134,26 @@ public class entryList extends JPanel {
         panel.setBorder(new EmptyBorder(10, 20, 10, 20));
         panel.setOpaque(false);
 
-        String month = date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-        String dayOfWeek = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-        String headerText = String.format("%s %d (%s)", month, date.getDayOfMonth(), dayOfWeek);
-
-        JLabel label = new JLabel(headerText);
-        label.setFont(theme.getSubtitleFont());
-        label.setForeground(theme.getTextColor());
-        panel.add(label, BorderLayout.WEST);
+        this.headerLabel = new JLabel(headerText());
+        this.headerLabel.setFont(theme.getSubtitleFont());
+        this.headerLabel.setForeground(theme.getTextColor());
+        panel.add(this.headerLabel, BorderLayout.WEST);
 
         return panel;
     }
 
 
+    /**
+     * Formats the date for the header.
+     * @return the header text, such as "March 4 (Tuesday)".
+     */
+    private String headerText() {
+        String month = date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        String dayOfWeek = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        return String.format("%s %d (%s)", month, date.getDayOfMonth(), dayOfWeek);
+    }
+
+
     /**
      * Creates a scrollable list view panel that organizes and displays entry tiles.
      * @return the scroll pane containing the entry list.
@@ -111,54 +161,160 @@ public class entryList extends JPanel {
     private JScrollPane createListView() {
         Theme theme = logicController.getCurrentTheme();
         
-        JPanel listPanel = new JPanel();
-        listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-        listPanel.setOpaque(false);
-        listPanel.setBackground(theme.getBackgroundColor());
-
-        // Separate entries
-        List<Entry> journalsAndTasks = new ArrayList<>();
-        List<Entry> meetingsAndEvents = new ArrayList<>();
-
-        for (Entry entry : entries) {
-            String type = entry.getType();
-            if (type.equals("Journal") || type.equals("Task")) {
-                journalsAndTasks.add(entry);
-            } else if (type.equals("Meeting") || type.equals("Event")) {
-                meetingsAndEvents.add(entry);
+        this.listPanel = new JPanel();
+        this.listPanel.setLayout(new BoxLayout(this.listPanel, BoxLayout.Y_AXIS));
+        this.listPanel.setOpaque(false);
+        this.listPanel.setBackground(theme.getBackgroundColor());
+
+        this.listScrollPane = new JScrollPane(this.listPanel);
+        this.listScrollPane.setBorder(null);
+        this.listScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        this.listScrollPane.setOpaque(false);
+        this.listScrollPane.getViewport().setOpaque(false);
+        this.listScrollPane.setBackground(theme.getBackgroundColor());
+        this.listScrollPane.getViewport().setBackground(theme.getBackgroundColor());
+        showEntries();
+        return this.listScrollPane;
+    }
+
+
+    /**
+     * Shows the entries as tiles or, for days with many entries, in a virtualized
+     * list that only paints the rows in view.
+     */
+    private void showEntries() {
+        this.listPanel.removeAll();
+        if (this.entries.size() > VIRTUALIZE_THRESHOLD) {
+            if (this.virtualList == null) {
+                createVirtualList();
+            }
+            this.virtualModel.clear();
+            this.virtualModel.addAll(this.entries);
+            this.listScrollPane.setViewportView(this.virtualList);
+        } else {
+            for (Entry entry : this.entries) {
+                this.listPanel.add(createTile(entry));
+            }
+            if (this.virtualModel != null) {
+                this.virtualModel.clear();
             }
+            this.listScrollPane.setViewportView(this.listPanel);
+            this.listPanel.revalidate();
+            this.listPanel.repaint();
         }
+    }
+
+
+    /**
+     * Creates the virtualized list. Its rows are painted by one reused renderer at a
+     * fixed height, so only the rows in view are ever laid out. Clicking a row shows
+     * its details, and clicking its "..." area shows the edit and delete actions.
+     */
+    private void createVirtualList() {
+        Theme theme = logicController.getCurrentTheme();
 
-        // Sort meetings/events by start time
-        meetingsAndEvents.sort((a, b) -> {
-            LocalTime aStart = null, bStart = null;
-            if (a instanceof Meeting meeting) aStart = meeting.getStartTime();
-            if (a instanceof Event event) aStart = event.getStartTime();
-            if (b instanceof Meeting meeting) bStart = meeting.getStartTime();
-            if (b instanceof Event event) bStart = event.getStartTime();
-            if (aStart == null && bStart == null) return 0;
-            if (aStart == null) return -1;
-            if (bStart == null) return 1;
-            return aStart.compareTo(bStart);
+        this.virtualModel = new DefaultListModel<>();
+        this.virtualList = new JList<>(this.virtualModel);
+        this.virtualList.setOpaque(false);
+        this.virtualList.setBackground(theme.getBackgroundColor());
+        this.virtualList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        this.virtualList.setCellRenderer(new EntryCellRenderer(theme));
+        // A timed entry has the most lines, so its height fits every row.
+        this.virtualList.setPrototypeCellValue(new Meeting("Prototype", this.date, LocalTime.NOON, LocalTime.NOON,
+                                                           "", "Online", null, null));
+        this.virtualList.setFixedCellWidth(-1);
+        this.virtualList.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        this.virtualList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = virtualList.locationToIndex(e.getPoint());
+                Rectangle bounds = index >= 0 ? virtualList.getCellBounds(index, index) : null;
+                if (bounds != null && bounds.contains(e.getPoint())) {
+                    Entry entry = virtualModel.getElementAt(index);
+                    if (e.getX() >= bounds.x + bounds.width - MENU_WIDTH) {
+                        showActions(virtualList, entry);
+                    } else {
+                        showDetails(virtualList, entry);
+                    }
+                }
+                virtualList.clearSelection();
+            }
         });
+    }
 
-        // Add journals/tasks first
-        for (Entry entry : journalsAndTasks) {
-            listPanel.add(createTile(entry));
-        }
 
-        for (Entry entry : meetingsAndEvents) {
-            listPanel.add(createTile(entry));
+    /**
+     * Paints a row of the virtualized list the way a tile looks, with a "..." label
+     * in place of the actions button.
+     */
+    private static class EntryCellRenderer extends JPanel implements ListCellRenderer<Entry> {
+
+        /** Label showing the entry title. */
+        private final JLabel titleLabel = new JLabel();
+
+        /** Label showing the entry type. */
+        private final JLabel typeLabel = new JLabel();
+
+        /** Label showing the time range of meetings and events. */
+        private final JLabel timeLabel = new JLabel();
+
+
+        /**
+         * Constructs the renderer with the theme's fonts and colors.
+         * @param theme the current theme.
+         */
+        EntryCellRenderer(Theme theme) {
+            super(new BorderLayout());
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, 1, 0, theme.getBackgroundColor()),
+                new EmptyBorder(8, 16, 8, 16)));
+            setBackground(theme.getPanelColor());
+
+            JPanel infoPanel = new JPanel();
+            infoPanel.setOpaque(false);
+            infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+            titleLabel.setFont(theme.getSubtitleFont());
+            titleLabel.setForeground(theme.getTextColor());
+            typeLabel.setFont(theme.getRegularFont());
+            typeLabel.setForeground(theme.getSubtitleColor());
+            timeLabel.setFont(theme.getRegularFont());
+            timeLabel.setForeground(theme.getSubtitleColor());
+            infoPanel.add(titleLabel);
+            infoPanel.add(typeLabel);
+            infoPanel.add(timeLabel);
+            add(infoPanel, BorderLayout.CENTER);
+
+            JLabel menuLabel = new JLabel("...", SwingConstants.CENTER);
+            menuLabel.setFont(theme.getButtonFont());
+            menuLabel.setForeground(theme.getTextColor());
+            menuLabel.setPreferredSize(new Dimension(MENU_WIDTH - 16, 0));
+            add(menuLabel, BorderLayout.EAST);
         }
 
-        JScrollPane scrollPane = new JScrollPane(listPanel);
-        scrollPane.setBorder(null);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        scrollPane.setOpaque(false);
-        scrollPane.getViewport().setOpaque(false);
-        scrollPane.setBackground(theme.getBackgroundColor());
-        scrollPane.getViewport().setBackground(theme.getBackgroundColor());
-        return scrollPane;
+
+        /**
+         * Fills the row with an entry.
+         * @param list         the list being painted.
+         * @param entry        the entry of the row.
+         * @param index        the row index.
+         * @param isSelected   whether the row is selected; rows are not highlighted.
+         * @param cellHasFocus whether the row has focus.
+         * @return this renderer.
+         */
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Entry> list, Entry entry, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            titleLabel.setText(entry.getTitle());
+            typeLabel.setText(entry.getType());
+            if (entry instanceof Meeting m) {
+                timeLabel.setText(m.getStartTime() + " - " + m.getEndTime());
+            } else if (entry instanceof Event e) {
+                timeLabel.setText(e.getStartTime() + " - " + e.getEndTime());
+            } else {
+                timeLabel.setText(" ");
+            }
+            return this;
+        }
     }
 
 
@@ -210,89 +366,14 @@ public class entryList extends JPanel {
         menuBtn.setContentAreaFilled(false);
         menuBtn.setForeground(theme.getTextColor());
         menuBtn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        menuBtn.addActionListener((var e) -> {
-            JPanel dialogPanel = new JPanel();
-            dialogPanel.setLayout(new BoxLayout(dialogPanel, BoxLayout.Y_AXIS));
-            JButton editBtn = new JButton("Edit Entry");
-            JButton deleteBtn = new JButton("Delete Entry");
-            editBtn.setAlignmentX(JButton.CENTER_ALIGNMENT);
-            deleteBtn.setAlignmentX(JButton.CENTER_ALIGNMENT);
-            dialogPanel.add(editBtn);
-            dialogPanel.add(deleteBtn);
-
-            Window window = SwingUtilities.getWindowAncestor(panel);
-            JDialog dialog;
-            if (window instanceof Frame frame) {
-                dialog = new JDialog(frame, "Entry Actions", true);
-            } else if (window instanceof Dialog dialog1) {
-                dialog = new JDialog(dialog1, "Entry Actions", true);
-            } else {
-                dialog = new JDialog((Frame) null, "Entry Actions", true);
-            }
-            dialog.setContentPane(dialogPanel);
-            dialog.setSize(220, 120);
-            dialog.setLocationRelativeTo(panel);
-
-            editBtn.addActionListener(ae -> {
-                dialog.dispose();
-                router.showEntryForm(entry);
-            });
-            deleteBtn.addActionListener(ae -> {
-                dialog.dispose();
-                int confirm = JOptionPane.showConfirmDialog(panel, "Delete entry '" + entry.getTitle() + "'?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
-                if (confirm == JOptionPane.YES_OPTION) {
-                    logicController.getCurrentCalendarObject().removeEntry(entry);
-                    JOptionPane.showMessageDialog(panel, "Entry deleted.");
-                    router.showWeeklyView(entry.getDate());
-                }
-            });
-            dialog.setVisible(true);
-        });
+        menuBtn.addActionListener((var e) -> showActions(panel, entry));
         panel.add(menuBtn, BorderLayout.EAST);
 
         // Clickable tile
         panel.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                JPanel dialogPanel = new JPanel();
-                dialogPanel.setLayout(new BoxLayout(dialogPanel, BoxLayout.Y_AXIS));
-                dialogPanel.setBorder(new EmptyBorder(16, 16, 16, 16));
-                dialogPanel.add(new JLabel("Title: " + entry.getTitle()));
-                dialogPanel.add(new JLabel("Type: " + entry.getType()));
-                dialogPanel.add(new JLabel("Date: " + entry.getDate()));
-                if (entry.getDescription() != null && !entry.getDescription().isEmpty()) {
-                    dialogPanel.add(new JLabel("Description: " + entry.getDescription()));
-                }
-                if (entry instanceof Event ev) {
-                    dialogPanel.add(new JLabel("Venue: " + ev.getVenue()));
-                    dialogPanel.add(new JLabel("Organizer: " + ev.getOrganizer()));
-                    dialogPanel.add(new JLabel("Start Time: " + ev.getStartTime()));
-                    dialogPanel.add(new JLabel("End Time: " + ev.getEndTime()));
-                } else if (entry instanceof Meeting mt) {
-                    dialogPanel.add(new JLabel("Modality: " + mt.getModality()));
-                    dialogPanel.add(new JLabel("Venue: " + (mt.getVenue() != null ? mt.getVenue() : "")));
-                    dialogPanel.add(new JLabel("Link: " + (mt.getLink() != null ? mt.getLink() : "")));
-                    dialogPanel.add(new JLabel("Start Time: " + mt.getStartTime()));
-                    dialogPanel.add(new JLabel("End Time: " + mt.getEndTime()));
-                } else if (entry instanceof Task tk) {
-                    dialogPanel.add(new JLabel("Priority: " + tk.getPriority()));
-                    dialogPanel.add(new JLabel("Status: " + tk.getStatus()));
-                    dialogPanel.add(new JLabel("Created By: " + tk.getCreatedBy()));
-                    dialogPanel.add(new JLabel("Finished By: " + (tk.getFinishedBy() != null ? tk.getFinishedBy() : "")));
-                }
-                JDialog dialog;
-                Window window = SwingUtilities.getWindowAncestor(panel);
-                if (window instanceof Frame frame) {
-                    dialog = new JDialog(frame, "Entry Details", true);
-                } else if (window instanceof Dialog dialog1) {
-                    dialog = new JDialog(dialog1, "Entry Details", true);
-                } else {
-                    dialog = new JDialog((Frame) null, "Entry Details", true);
-                }
-                dialog.setContentPane(dialogPanel);
-                dialog.setSize(320, 320);
-                dialog.setLocationRelativeTo(panel);
-                dialog.setVisible(true);
+                showDetails(panel, entry);
             }
         });
 
@@ -300,6 +381,100 @@ public class entryList extends JPanel {
     }
 
 
+    /**
+     * Shows the dialog with the edit and delete actions of an entry.
+     * @param anchor the component the dialog is placed over.
+     * @param entry  the entry to act on.
+     */
+    private void showActions(Component anchor, Entry entry) {
+        JPanel dialogPanel = new JPanel();
+        dialogPanel.setLayout(new BoxLayout(dialogPanel, BoxLayout.Y_AXIS));
+        JButton editBtn = new JButton("Edit Entry");
+        JButton deleteBtn = new JButton("Delete Entry");
+        editBtn.setAlignmentX(JButton.CENTER_ALIGNMENT);
+        deleteBtn.setAlignmentX(JButton.CENTER_ALIGNMENT);
+        dialogPanel.add(editBtn);
+        dialogPanel.add(deleteBtn);
+
+        JDialog dialog = createDialog(anchor, "Entry Actions");
+        dialog.setContentPane(dialogPanel);
+        dialog.setSize(220, 120);
+        dialog.setLocationRelativeTo(anchor);
+
+        editBtn.addActionListener(ae -> {
+            dialog.dispose();
+            router.showEntryForm(entry);
+        });
+        deleteBtn.addActionListener(ae -> {
+            dialog.dispose();
+            int confirm = JOptionPane.showConfirmDialog(anchor, "Delete entry '" + entry.getTitle() + "'?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                logicController.removeEntryFromCurrentCalendarObject(entry.getId());
+                JOptionPane.showMessageDialog(anchor, "Entry deleted.");
+                router.showWeeklyView(entry.getDate());
+            }
+        });
+        dialog.setVisible(true);
+    }
+
+
+    /**
+     * Shows the dialog with the details of an entry.
+     * @param anchor the component the dialog is placed over.
+     * @param entry  the entry to describe.
+     */
+    private void showDetails(Component anchor, Entry entry) {
+        JPanel dialogPanel = new JPanel();
+        dialogPanel.setLayout(new BoxLayout(dialogPanel, BoxLayout.Y_AXIS));
+        dialogPanel.setBorder(new EmptyBorder(16, 16, 16, 16));
+        dialogPanel.add(new JLabel("Title: " + entry.getTitle()));
+        dialogPanel.add(new JLabel("Type: " + entry.getType()));
+        dialogPanel.add(new JLabel("Date: " + entry.getDate()));
+        if (entry.getDescription() != null && !entry.getDescription().isEmpty()) {
+            dialogPanel.add(new JLabel("Description: " + entry.getDescription()));
+        }
+        if (entry instanceof Event ev) {
+            dialogPanel.add(new JLabel("Venue: " + ev.getVenue()));
+            dialogPanel.add(new JLabel("Organizer: " + ev.getOrganizer()));
+            dialogPanel.add(new JLabel("Start Time: " + ev.getStartTime()));
+            dialogPanel.add(new JLabel("End Time: " + ev.getEndTime()));
+        } else if (entry instanceof Meeting mt) {
+            dialogPanel.add(new JLabel("Modality: " + mt.getModality()));
+            dialogPanel.add(new JLabel("Venue: " + (mt.getVenue() != null ? mt.getVenue() : "")));
+            dialogPanel.add(new JLabel("Link: " + (mt.getLink() != null ? mt.getLink() : "")));
+            dialogPanel.add(new JLabel("Start Time: " + mt.getStartTime()));
+            dialogPanel.add(new JLabel("End Time: " + mt.getEndTime()));
+        } else if (entry instanceof Task tk) {
+            dialogPanel.add(new JLabel("Priority: " + tk.getPriority()));
+            dialogPanel.add(new JLabel("Status: " + tk.getStatus()));
+            dialogPanel.add(new JLabel("Created By: " + tk.getCreatedBy()));
+            dialogPanel.add(new JLabel("Finished By: " + (tk.getFinishedBy() != null ? tk.getFinishedBy() : "")));
+        }
+        JDialog dialog = createDialog(anchor, "Entry Details");
+        dialog.setContentPane(dialogPanel);
+        dialog.setSize(320, 320);
+        dialog.setLocationRelativeTo(anchor);
+        dialog.setVisible(true);
+    }
+
+
+    /**
+     * Creates a modal dialog owned by the window holding a component.
+     * @param anchor the component whose window owns the dialog.
+     * @param title  the dialog title.
+     * @return the dialog.
+     */
+    private static JDialog createDialog(Component anchor, String title) {
+        Window window = SwingUtilities.getWindowAncestor(anchor);
+        if (window instanceof Frame frame) {
+            return new JDialog(frame, title, true);
+        } else if (window instanceof Dialog dialog) {
+            return new JDialog(dialog, title, true);
+        }
+        return new JDialog((Frame) null, title, true);
+    }
+
+
     /**
      * Creates the footer panel with the "Add Entry" button.
      *
@@ -0,0 +1,304 @@
+package com.hallareandrebollos.widgets;
+
+import java.awt.BasicStroke;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.hallareandrebollos.controls.LogicController;
+import com.hallareandrebollos.controls.Router;
+import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.MonthEntries;
+import com.hallareandrebollos.models.Theme;
+
+
+/**
+ * Draws a whole month as one component: the weekday headers and a cell per day,
+ * each with its day number and a pie chart of its entries. Cells are painted and
+ * hit-tested by this component, so showing another month only repaints it.
+ */
+public class monthGrid extends JPanel {
+
+    /** Weekdays in column order. */
+    private static final DayOfWeek[] WEEK_DAYS = {
+        DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+        DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY
+    };
+
+    /** Font of the weekday headers. */
+    private static final Font HEADER_FONT = new Font("SansSerif", Font.BOLD, 13);
+
+    /** Height of the weekday header row, in pixels. */
+    private static final int HEADER_HEIGHT = 24;
+
+    /** Space around the grid, in pixels. */
+    private static final int PADDING = 10;
+
+    /** Size of each day's pie chart, in pixels. */
+    private static final int PIE_SIZE = 35;
+
+    /** LogicController used for the theme and the entries of a clicked day. */
+    private final LogicController logic;
+
+    /** Router passed to the entry list of a clicked day. */
+    private final Router router;
+
+    /** The month shown, or null before one is set. */
+    private YearMonth yearMonth;
+
+    /** Entries of the month shown, read for each day's counts. */
+    private MonthEntries monthEntries;
+
+    /** Column of the first day of the month, 0 for Sunday. */
+    private int startDay;
+
+    /** Number of week rows the month spans. */
+    private int weeks;
+
+    /** Day of the month shown as today, or 0 if today is in another month. */
+    private int today;
+
+    /** Day of the month under the mouse, or 0 if none. */
+    private int hoverDay;
+
+
+    /**
+     * Constructs an empty month grid. A month is shown with {@link #setMonth}.
+     * @param logic the LogicController for the theme and entry data
+     * @param router the Router for navigation from a day's entry list
+     */
+    public monthGrid(LogicController logic, Router router) {
+        this.logic = logic;
+        this.router = router;
+        setPreferredSize(new Dimension(7 * 120 + 2 * PADDING, HEADER_HEIGHT + 6 * 100 + 2 * PADDING));
+
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverDay(dayAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverDay(0);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int day = dayAt(e.getX(), e.getY());
+                if (day > 0) {
+                    showEntries(yearMonth.atDay(day));
+                }
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+
+    /**
+     * Shows a month.
+     * @param yearMonth the month to show
+     * @param monthEntries the entries of the month, giving each day's counts
+     */
+    public void setMonth(YearMonth yearMonth, MonthEntries monthEntries) {
+        LocalDate now = LocalDate.now();
+        this.yearMonth = yearMonth;
+        this.monthEntries = monthEntries;
+        this.startDay = yearMonth.atDay(1).getDayOfWeek().getValue() % 7;
+        this.weeks = (this.startDay + yearMonth.lengthOfMonth() + 6) / 7;
+        this.today = YearMonth.from(now).equals(yearMonth) ? now.getDayOfMonth() : 0;
+        this.hoverDay = 0;
+        repaint();
+    }
+
+
+    /**
+     * Paints the weekday headers and every cell of the month.
+     * @param g the Graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Theme theme = logic.getCurrentTheme();
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(theme.getPanelColor());
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+
+        // Weekday headers.
+        g2d.setFont(HEADER_FONT);
+        FontMetrics headerMetrics = g2d.getFontMetrics();
+        for (int column = 0; column < 7; column++) {
+            int x = columnX(column);
+            int width = columnX(column + 1) - x;
+            g2d.setColor(theme.getBorderColor());
+            g2d.fillRect(x, PADDING, width, HEADER_HEIGHT);
+            String name = WEEK_DAYS[column].getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            g2d.setColor(theme.getTextColor());
+            g2d.drawString(name, x + (width - headerMetrics.stringWidth(name)) / 2,
+                PADDING + (HEADER_HEIGHT - headerMetrics.getHeight()) / 2 + headerMetrics.getAscent());
+        }
+
+        if (yearMonth != null) {
+            int daysInMonth = yearMonth.lengthOfMonth();
+            for (int cell = 0; cell < weeks * 7; cell++) {
+                paintCell(g2d, theme, cell, cell - startDay + 1, daysInMonth);
+            }
+        }
+        g2d.dispose();
+    }
+
+
+    /**
+     * Paints one cell: a blank filler outside the month, or a day with its number and pie chart.
+     * @param g2d the Graphics to paint with
+     * @param theme the current theme
+     * @param cell the cell index, counted row by row from the top left
+     * @param day the day of the month in the cell, out of range for fillers
+     * @param daysInMonth the number of days in the month
+     */
+    private void paintCell(Graphics2D g2d, Theme theme, int cell, int day, int daysInMonth) {
+        int x = columnX(cell % 7);
+        int y = rowY(cell / 7);
+        int width = columnX(cell % 7 + 1) - x;
+        int height = rowY(cell / 7 + 1) - y;
+
+        if (day < 1 || day > daysInMonth) {
+            g2d.setColor(theme.getSecondaryButtonColor());
+            g2d.fillRect(x, y, width, height);
+            g2d.setColor(theme.getBorderColor());
+            g2d.drawRect(x, y, width - 1, height - 1);
+            return;
+        }
+
+        g2d.setColor(theme.getPanelColor());
+        g2d.fillRect(x, y, width, height);
+
+        Font font = day == today ? theme.getTitleFont() : theme.getRegularFont();
+        g2d.setFont(font);
+        FontMetrics metrics = g2d.getFontMetrics();
+        String label = String.valueOf(day);
+        g2d.setColor(theme.getTextColor());
+        g2d.drawString(label, x + 2, y + 1 + metrics.getAscent());
+
+        // The chart is centered in the space right of the day number.
+        int labelWidth = metrics.stringWidth(label) + 2;
+        int pieSize = Math.max(0, Math.min(PIE_SIZE, Math.min(width - labelWidth, height) - 2));
+        pieChart.drawCachedPie(g2d, monthEntries.getTypeCounts(day),
+            x + labelWidth + (width - labelWidth - pieSize) / 2, y + (height - pieSize) / 2, pieSize, theme);
+
+        if (day == hoverDay) {
+            g2d.setColor(theme.getAccentColor());
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRect(x + 1, y + 1, width - 2, height - 2);
+            g2d.setStroke(new BasicStroke(1));
+        } else {
+            g2d.setColor(theme.getBorderColor());
+            g2d.drawRect(x, y, width - 1, height - 1);
+        }
+    }
+
+
+    /**
+     * Returns the left edge of a column; column 7 gives the right edge of the grid.
+     * @param column the column, 0 to 7
+     * @return the x coordinate
+     */
+    private int columnX(int column) {
+        return PADDING + column * (getWidth() - 2 * PADDING) / 7;
+    }
+
+
+    /**
+     * Returns the top edge of a week row; row {@code weeks} gives the bottom edge of the grid.
+     * @param row the row, 0 to {@code weeks}
+     * @return the y coordinate
+     */
+    private int rowY(int row) {
+        return PADDING + HEADER_HEIGHT + row * (getHeight() - 2 * PADDING - HEADER_HEIGHT) / Math.max(1, weeks);
+    }
+
+
+    /**
+     * Finds the day of the month at a point.
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the day of the month, or 0 if the point is not on a day of the month
+     */
+    private int dayAt(int x, int y) {
+        if (yearMonth == null || x < columnX(0) || x >= columnX(7) || y < rowY(0) || y >= rowY(weeks)) {
+            return 0;
+        }
+        int column = 0;
+        while (x >= columnX(column + 1)) {
+            column++;
+        }
+        int row = 0;
+        while (y >= rowY(row + 1)) {
+            row++;
+        }
+        int day = row * 7 + column - startDay + 1;
+        return day >= 1 && day <= yearMonth.lengthOfMonth() ? day : 0;
+    }
+
+
+    /**
+     * Moves the hover highlight, repainting only the cells it leaves and enters.
+     * @param day the day now under the mouse, or 0 for none
+     */
+    private void setHoverDay(int day) {
+        if (day != hoverDay) {
+            repaintDay(hoverDay);
+            hoverDay = day;
+            repaintDay(day);
+        }
+    }
+
+
+    /**
+     * Repaints the cell of a day.
+     * @param day the day of the month, or 0 for none
+     */
+    private void repaintDay(int day) {
+        if (day > 0) {
+            int cell = day - 1 + startDay;
+            int x = columnX(cell % 7);
+            int y = rowY(cell / 7);
+            repaint(x, y, columnX(cell % 7 + 1) - x, rowY(cell / 7 + 1) - y);
+        }
+    }
+
+
+    /**
+     * Shows a dialog with the entries of a day.
+     * @param date the day clicked
+     */
+    private void showEntries(LocalDate date) {
+        ArrayList<Entry> entriesForDay = logic.getEntriesForDate(date);
+
+        entryList entryListWidget = new entryList(date, entriesForDay, router, logic, true);
+        JDialog dialog = new JDialog((JFrame) SwingUtilities.getWindowAncestor(this),
+                "Entries for " + date.toString(), true);
+        dialog.setContentPane(entryListWidget);
+        dialog.setSize(500, 600);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+}
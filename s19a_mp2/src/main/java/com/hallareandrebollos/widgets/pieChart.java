@@ -7,41 +7,46 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.JPanel;
 
 import com.hallareandrebollos.controls.LogicController;
 import com.hallareandrebollos.models.Entry;
+import com.hallareandrebollos.models.MonthEntries;
 import com.hallareandrebollos.models.Theme;
 
 public class pieChart extends JPanel {
+    private static final int IMAGE_CACHE_CAPACITY = 256;   // Most chart images kept, about 5 KB each at tile size.
+    private static final LinkedHashMap<ImageKey, BufferedImage> imageCache =
+        new LinkedHashMap<>(64, 0.75f, true) {              // Access order, so the least recently drawn image is dropped first.
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ImageKey, BufferedImage> eldest) {
+                return size() > IMAGE_CACHE_CAPACITY;
+            }
+        };
+    private static long imageCacheHits;
+    private static long imageCacheMisses;
+
+    // Identifies a rendered chart: the counts divided by their greatest common divisor,
+    // since charts of proportional counts look the same, the image size in pixels and the theme.
+    private record ImageKey(String counts, int width, int height, Theme.ThemeType theme) {
+    }
+
     private final int[] values;
     private final LogicController logicController;
-    private final String[] types = {"Event", "Meeting", "Task", "Journal"};
+    private final String[] types = MonthEntries.TYPES;
     private final int size;
 
     public pieChart(ArrayList<Entry> entries, int sizeX, int sizeY, LogicController logicController) {
+        this(MonthEntries.countTypes(entries), sizeX, sizeY, logicController);
+    }
+
+    public pieChart(int[] counts, int sizeX, int sizeY, LogicController logicController) {
         this.logicController = logicController;
         
-        // Count entries by type
-        int[] counts = new int[4]; // Event, Meeting, Task, Journal
-
-        for (Entry entry : entries) {
-            String type = entry.getType();
-            switch (type) {
-                case "Event" ->
-                    counts[0]++;
-                case "Meeting" ->
-                    counts[1]++;
-                case "Task" ->
-                    counts[2]++;
-                case "Journal" ->
-                    counts[3]++;
-                default -> {
-                    /* ignore unknown types */ }
-            }
-        }
-
         this.values = counts;
         this.size = Math.min(sizeX, sizeY);
         setPreferredSize(new Dimension(size, size));
@@ -70,16 +75,100 @@ public class pieChart extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         int drawSize = Math.min(getWidth(), getHeight());
-        g2d.translate((getWidth() - drawSize) / 2, (getHeight() - drawSize) / 2);
-        drawPieChart(g2d, drawSize);
-        g2d.dispose();
+        drawCachedPie((Graphics2D) g, values, (getWidth() - drawSize) / 2, (getHeight() - drawSize) / 2, drawSize,
+                      logicController.getCurrentTheme());
     }
 
-    private void drawPieChart(Graphics2D g2d, int drawSize) {
-        Theme theme = logicController.getCurrentTheme();
+    // Draws a chart of the counts from the image cache, at the screen's pixel density.
+    public static void drawCachedPie(Graphics2D g2d, int[] values, int x, int y, int drawSize, Theme theme) {
+        int pixels = (int) Math.ceil(drawSize * g2d.getTransform().getScaleX());
+        BufferedImage image = getPieImage(values, pixels, pixels, theme);
+        if (image != null) {
+            g2d.drawImage(image, x, y, drawSize, drawSize, null);
+        }
+    }
+
+    // Returns the rendered chart of the counts, centered in a transparent image of the given size.
+    // Images are shared through a bounded cache, so they must not be drawn on. Returns null if every count is 0.
+    public static BufferedImage getPieImage(int[] values, int width, int height, Theme theme) {
+        int divisor = 0;
+        for (int value : values) {
+            divisor = gcd(divisor, value);
+        }
+        if (divisor <= 0 || width <= 0 || height <= 0) {
+            return null;
+        }
+        int[] normalized = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            normalized[i] = values[i] / divisor;
+        }
+        ImageKey key = new ImageKey(Arrays.toString(normalized), width, height, theme.getCurrentTheme());
+
+        synchronized (imageCache) {
+            BufferedImage image = imageCache.get(key);
+            if (image != null) {
+                imageCacheHits++;
+                return image;
+            }
+            imageCacheMisses++;
+
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int drawSize = Math.min(width, height);
+            g2d.translate((width - drawSize) / 2, (height - drawSize) / 2);
+            paintPie(g2d, normalized, drawSize, theme);
+            g2d.dispose();
+            imageCache.put(key, image);
+            return image;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    // Cache metrics: charts drawn from an image already rendered, and charts that had to be rendered.
+    public static long getImageCacheHits() {
+        synchronized (imageCache) {
+            return imageCacheHits;
+        }
+    }
+
+    public static long getImageCacheMisses() {
+        synchronized (imageCache) {
+            return imageCacheMisses;
+        }
+    }
+
+    // Share of chart lookups served from the cache, from 0 to 1, or 0 before any lookup.
+    public static double getImageCacheHitRate() {
+        synchronized (imageCache) {
+            long lookups = imageCacheHits + imageCacheMisses;
+            return lookups > 0 ? (double) imageCacheHits / lookups : 0;
+        }
+    }
+
+    public static int getImageCacheSize() {
+        synchronized (imageCache) {
+            return imageCache.size();
+        }
+    }
+
+    // Prints the cache metrics, e.g. when the application exits.
+    public static void printImageCacheStats() {
+        System.out.println(String.format("Pie chart image cache: %d hits, %d misses, %.1f%% hit rate, %d images.",
+                getImageCacheHits(), getImageCacheMisses(), getImageCacheHitRate() * 100, getImageCacheSize()));
+    }
+
+    // Paints a chart of the counts at the origin, so a component painting many charts needs no pieChart of its own.
+    public static void paintPie(Graphics2D g2d, int[] values, int drawSize, Theme theme) {
         Color[] colors = {
             theme.getAccentColor(),
             Theme.lighterColor(theme.getAccentColor(), 0.3),
@@ -109,18 +198,10 @@ public class pieChart extends JPanel {
         }
     }
 
-    // Static method for creating BufferedImage (if needed elsewhere)
+    // Returns the chart of the entries as an image, taken from the shared image cache. Must not be drawn on.
     public static BufferedImage constructPieChartImage(ArrayList<Entry> entries, int sizeX, int sizeY, LogicController logicController) {
-        pieChart pie = new pieChart(entries, sizeX, sizeY, logicController);
-        BufferedImage image = new BufferedImage(sizeX, sizeY, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = image.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        pie.setSize(sizeX, sizeY);
-        pie.paintComponent(g2d);
-
-        g2d.dispose();
-        return image;
+        BufferedImage image = getPieImage(MonthEntries.countTypes(entries), sizeX, sizeY, logicController.getCurrentTheme());
+        return image != null ? image : new BufferedImage(sizeX, sizeY, BufferedImage.TYPE_INT_ARGB);
     }
 
     public int getTotalEntries() {
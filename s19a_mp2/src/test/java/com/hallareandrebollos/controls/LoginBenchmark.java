@@ -0,0 +1,89 @@
+package com.hallareandrebollos.controls;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import com.hallareandrebollos.persistence.DataStore;
+
+
+/**
+ * Measures login latency as the number of accounts grows from 10 to 1,000,000,
+ * to show that {@link LogicController#authenticateAccount} does not slow down
+ * with more accounts. Accounts are saved to a temporary data directory that is
+ * deleted afterwards.
+ *
+ * Run after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.hallareandrebollos.controls.LoginBenchmark [logins]}.
+ */
+public class LoginBenchmark {
+
+    /** Account counts measured, each grown from the one before. */
+    private static final int[] ACCOUNT_COUNTS = {10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    /**
+     * Runs the benchmark.
+     * @param args optionally, the number of timed logins per account count (default 200,000).
+     * @throws IOException if the temporary data directory cannot be made or removed.
+     */
+    public static void main(String[] args) throws IOException {
+        int logins = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Path directory = Files.createTempDirectory("login-benchmark");
+        try {
+            LogicController logic = new LogicController(new DataStore(directory));
+            Random random = new Random(42);
+            int created = 0;
+            for (int accounts : ACCOUNT_COUNTS) {
+                while (created < accounts) {
+                    logic.addAccount("user" + created, "pw" + created);
+                    created++;
+                }
+
+                // Warm up, then time logins of random existing accounts and some unknown usernames.
+                timeLogins(logic, random, accounts, logins);
+                double nanos = timeLogins(logic, random, accounts, logins);
+                System.out.println(String.format("%,9d accounts: %,8.1f ns per login", accounts, nanos));
+            }
+            logic.closeDataStore();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+
+    /**
+     * Times a run of logins. One in ten uses a username that does not exist.
+     * @param logic    the controller holding the accounts
+     * @param random   source of the accounts to log in as
+     * @param accounts number of accounts created
+     * @param logins   number of logins to time
+     * @return the average time of a login in nanoseconds
+     */
+    private static double timeLogins(LogicController logic, Random random, int accounts, int logins) {
+        String[] usernames = new String[logins];
+        String[] passwords = new String[logins];
+        for (int i = 0; i < logins; i++) {
+            int id = random.nextInt(accounts);
+            usernames[i] = i % 10 == 0 ? "missing" + id : "user" + id;
+            passwords[i] = "pw" + id;
+        }
+
+        int succeeded = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < logins; i++) {
+            if (logic.authenticateAccount(usernames[i], passwords[i])) {
+                succeeded++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (succeeded != logins - (logins + 9) / 10) {
+            throw new IllegalStateException("Only " + succeeded + " of " + logins + " logins succeeded");
+        }
+        return (double) elapsed / logins;
+    }
+}